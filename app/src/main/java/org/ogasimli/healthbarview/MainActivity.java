@@ -21,10 +21,13 @@ public class MainActivity extends AppCompatActivity {
 
         HealthBarView view = findViewById(R.id.healthbarview_java);
 
+        // Batch edit lays out and redraws the view once after all attributes are set
+        view.beginBatchEdit();
+
         // Setting min value resets value to min value. Therefore, min value should be set before
         view.setShowMinValue(true);
         view.setMinValue(-20);
-        view.setMinValueTextColor(R.color.colorPrimaryDark);
+        view.setMinValueTextColorResource(R.color.colorPrimaryDark);
         view.setMinValueTextSize(16);
         view.setMinValueFont(R.font.lato_light_italic);
         //view.setMinValueFont(Typeface.create(Typeface.SERIF, Typeface.ITALIC));
@@ -33,7 +36,7 @@ public class MainActivity extends AppCompatActivity {
 
         view.setMaxValue(34);
         view.setShowMaxValue(true);
-        view.setMaxValueTextColor(R.color.colorPrimaryDark);
+        view.setMaxValueTextColorResource(R.color.colorPrimaryDark);
         view.setMaxValueTextSize(16);
         view.setMaxValueFont(R.font.lato_light_italic);
         //view.setMaxValueFont(Typeface.create(Typeface.SERIF, Typeface.ITALIC));
@@ -42,21 +45,21 @@ public class MainActivity extends AppCompatActivity {
 
         // Bar Stroke
         view.setStrokeWidth(1);
-        view.setStrokeColor(R.color.colorPrimaryDark);
+        view.setStrokeColorResource(R.color.colorPrimaryDark);
 
         // Bar Fill
-        view.setStartColor(R.color.colorPrimary);
-        view.setEndColor(R.color.colorAccent);
+        view.setStartColorResource(R.color.colorPrimary);
+        view.setEndColorResource(R.color.colorAccent);
 
         // Bar Indicator
         view.setIndicatorWidth(0.5f);
-        view.setIndicatorColor(R.color.colorPrimaryDark);
+        view.setIndicatorColorResource(R.color.colorPrimaryDark);
         view.setIndicatorTopOverflow(15);
         view.setIndicatorBottomOverflow(15);
 
         // Value
         view.setShowValue(true);
-        view.setValueTextColor(R.color.colorPrimaryDark);
+        view.setValueTextColorResource(R.color.colorPrimaryDark);
         view.setValueTextSize(16);
         view.setValueFont(R.font.lato_light_italic);
         //view.setValueFont(Typeface.create(Typeface.SERIF, Typeface.ITALIC));
@@ -69,7 +72,7 @@ public class MainActivity extends AppCompatActivity {
 
         // Label
         view.setShowLabel(true);
-        view.setLabelTextColor(R.color.colorPrimaryDark);
+        view.setLabelTextColorResource(R.color.colorPrimaryDark);
         view.setLabelTextSize(16);
         view.setLabelFont(R.font.lato_light_italic);
         //view.setLabelFont(Typeface.create(Typeface.SERIF, Typeface.ITALIC));
@@ -77,5 +80,7 @@ public class MainActivity extends AppCompatActivity {
         //view.setLabels("Poor,Below Average,Average,Above Average,Good,Excellent", Pattern.quote(","));
         view.setLabelsRange(new double[]{-10D,0D,10D,15D,28D,34D});
         //view.setLabelsRange("-10,0,10,15,28,34", Pattern.quote(","));
+
+        view.endBatchEdit();
     }
 }
\ No newline at end of file
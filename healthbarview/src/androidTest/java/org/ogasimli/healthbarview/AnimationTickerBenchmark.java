@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2018 Orkhan Gasimli - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * This file is proprietary and confidential.
+ * Written by Orkhan Gasimli <orkhan.gasimli@gmail.com> in 2018.
+ */
+
+package org.ogasimli.healthbarview;
+
+import android.animation.ValueAnimator;
+import android.os.Debug;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+import android.view.Choreographer;
+import android.view.View.MeasureSpec;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Instrumented benchmark comparing main thread CPU time per frame of animating bars driven by
+ * the shared animation ticker and by a ValueAnimator per bar. Results are written to logcat
+ * under the AnimationTickerBenchmark tag.
+ *
+ * @see <a href="http://d.android.com/tools/testing">Testing documentation</a>
+ */
+@RunWith(AndroidJUnit4.class)
+public class AnimationTickerBenchmark {
+
+    private static final String LOG_TAG = AnimationTickerBenchmark.class.getSimpleName();
+
+    private static final int[] BAR_COUNTS = {10, 100, 1000};
+
+    private static final long WARM_UP_MILLIS = 500;
+
+    private static final long MEASURE_MILLIS = 2000;
+
+    // Long enough for animations not to end while measured
+    private static final int ANIMATION_DURATION = 60000;
+
+    private static final int VIEW_WIDTH = 1080;
+
+    private HealthBarView[] mViews;
+
+    private ValueAnimator[] mAnimators;
+
+    private long mStartCpuNanos;
+
+    private long mCpuNanos;
+
+    private int mFrames;
+
+    private boolean mIsCounting;
+
+    private final Choreographer.FrameCallback mFrameCounter = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            if (mIsCounting) {
+                mFrames++;
+                Choreographer.getInstance().postFrameCallback(this);
+            }
+        }
+    };
+
+    @Test
+    public void sharedTicker_reducesFrameCost() throws Exception {
+        long tickerNanos = 0;
+        long animatorNanos = 0;
+        for (int count : BAR_COUNTS) {
+            tickerNanos = measureTicker(count);
+            animatorNanos = measureAnimators(count);
+            Log.i(LOG_TAG, String.format("%d bars, CPU ns per frame: ticker %d, animators %d",
+                    count, tickerNanos, animatorNanos));
+        }
+        assertTrue(tickerNanos < animatorNanos);
+    }
+
+    /**
+     * Animate bars with the shared ticker and return CPU time per frame
+     *
+     * @param count the number of bars
+     */
+    private long measureTicker(int count) throws InterruptedException {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            createViews(count);
+            for (HealthBarView view : mViews) {
+                view.setAnimated(true);
+                view.setAnimationDuration(ANIMATION_DURATION);
+                view.setValue(100);
+            }
+        });
+        long frameNanos = measureFrameNanos();
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            for (HealthBarView view : mViews) {
+                view.setAnimated(false);
+                view.setValue(0);
+                view.onDetachedFromWindow();
+            }
+        });
+        return frameNanos;
+    }
+
+    /**
+     * Animate bars with an animator per bar, as bars did before the shared ticker,
+     * and return CPU time per frame
+     *
+     * @param count the number of bars
+     */
+    private long measureAnimators(int count) throws InterruptedException {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            createViews(count);
+            mAnimators = new ValueAnimator[count];
+            for (int i = 0; i < count; i++) {
+                HealthBarView view = mViews[i];
+                mAnimators[i] = ValueAnimator.ofFloat(0, 100);
+                mAnimators[i].setDuration(ANIMATION_DURATION);
+                mAnimators[i].addUpdateListener(
+                        animator -> view.setValue((Float) animator.getAnimatedValue()));
+                mAnimators[i].start();
+            }
+        });
+        long frameNanos = measureFrameNanos();
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            for (ValueAnimator animator : mAnimators) {
+                animator.cancel();
+            }
+            for (HealthBarView view : mViews) {
+                view.onDetachedFromWindow();
+            }
+        });
+        return frameNanos;
+    }
+
+    private long measureFrameNanos() throws InterruptedException {
+        Thread.sleep(WARM_UP_MILLIS);
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            mFrames = 0;
+            mIsCounting = true;
+            Choreographer.getInstance().postFrameCallback(mFrameCounter);
+            mStartCpuNanos = Debug.threadCpuTimeNanos();
+        });
+        Thread.sleep(MEASURE_MILLIS);
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            mCpuNanos = Debug.threadCpuTimeNanos() - mStartCpuNanos;
+            mIsCounting = false;
+        });
+        return mCpuNanos / Math.max(1, mFrames);
+    }
+
+    private void createViews(int count) {
+        mViews = new HealthBarView[count];
+        for (int i = 0; i < count; i++) {
+            HealthBarView view = new HealthBarView(InstrumentationRegistry.getTargetContext());
+            view.setMinValue(0);
+            view.setMaxValue(100);
+            view.measure(MeasureSpec.makeMeasureSpec(VIEW_WIDTH, MeasureSpec.EXACTLY),
+                    MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED));
+            view.layout(0, 0, view.getMeasuredWidth(), view.getMeasuredHeight());
+            // Animations of views not attached to window are paused
+            view.onAttachedToWindow();
+            mViews[i] = view;
+        }
+    }
+}
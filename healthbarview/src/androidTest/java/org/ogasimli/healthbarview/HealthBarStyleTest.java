@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2018 Orkhan Gasimli - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * This file is proprietary and confidential.
+ * Written by Orkhan Gasimli <orkhan.gasimli@gmail.com> in 2018.
+ */
+
+package org.ogasimli.healthbarview;
+
+import android.content.Context;
+import android.content.ContextWrapper;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.content.res.TypedArray;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.DisplayMetrics;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.ogasimli.healthbarview.library.R;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Instrumented test of caching parsed styles of HealthBarView.
+ *
+ * @see <a href="http://d.android.com/tools/testing">Testing documentation</a>
+ */
+@RunWith(AndroidJUnit4.class)
+public class HealthBarStyleTest {
+
+    @Test
+    public void obtain_reusesStyleParsedForSameAttributes() throws Exception {
+        Context context = InstrumentationRegistry.getTargetContext();
+
+        HealthBarStyle style = HealthBarStyle.obtain(context, null, R.attr.healthBarViewStyle, 0);
+
+        assertSame(style, HealthBarStyle.obtain(context, null, R.attr.healthBarViewStyle, 0));
+    }
+
+    @Test
+    public void obtain_parsesStyleForDifferentDefaultStyle() throws Exception {
+        Context context = InstrumentationRegistry.getTargetContext();
+
+        HealthBarStyle style = HealthBarStyle.obtain(context, null, R.attr.healthBarViewStyle, 0);
+
+        assertNotSame(style, HealthBarStyle.obtain(context, null, 0, 0));
+    }
+
+    @Test
+    public void obtain_matchesFreshReadAfterApplyStyle() throws Exception {
+        ThemedContext context = new ThemedContext();
+        assertMatchesFreshRead(context,
+                HealthBarStyle.obtain(context, null, R.attr.healthBarViewStyle, 0));
+
+        // Same theme object now holds another default style and another foreground color
+        context.getTheme().applyStyle(
+                org.ogasimli.healthbarview.library.test.R.style.HealthBarStyleTest_ThemeOverlay,
+                true);
+
+        assertMatchesFreshRead(context,
+                HealthBarStyle.obtain(context, null, R.attr.healthBarViewStyle, 0));
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void obtain_matchesFreshReadAfterConfigurationChange() throws Exception {
+        ThemedContext context = new ThemedContext();
+        assertMatchesFreshRead(context,
+                HealthBarStyle.obtain(context, null, R.attr.healthBarViewStyle, 0));
+
+        // Same theme object now resolves dimensions with another density
+        Resources resources = context.getResources();
+        Configuration configuration = new Configuration(resources.getConfiguration());
+        configuration.densityDpi *= 2;
+        DisplayMetrics metrics = new DisplayMetrics();
+        metrics.setTo(resources.getDisplayMetrics());
+        resources.updateConfiguration(configuration, metrics);
+
+        assertMatchesFreshRead(context,
+                HealthBarStyle.obtain(context, null, R.attr.healthBarViewStyle, 0));
+    }
+
+    private static void assertMatchesFreshRead(Context context, HealthBarStyle style) {
+        TypedArray a = context.obtainStyledAttributes(null, R.styleable.HealthBarView,
+                R.attr.healthBarViewStyle, 0);
+        try {
+            assertEquals(a.getDimensionPixelSize(R.styleable.HealthBarView_hbv_valueTextSize, 0),
+                    style.getInt(R.styleable.HealthBarView_hbv_valueTextSize));
+            assertEquals(a.getColor(R.styleable.HealthBarView_hbv_indicatorColor, 0),
+                    style.getColorStateList(R.styleable.HealthBarView_hbv_indicatorColor)
+                            .getDefaultColor());
+        } finally {
+            a.recycle();
+        }
+    }
+
+    /**
+     * Context with resources and theme of its own, which are modified by tests in place
+     */
+    @SuppressWarnings("deprecation")
+    private static class ThemedContext extends ContextWrapper {
+
+        private final Resources mResources;
+
+        private final Resources.Theme mTheme;
+
+        ThemedContext() {
+            super(InstrumentationRegistry.getContext());
+            Resources base = getBaseContext().getResources();
+            mResources = new Resources(base.getAssets(), base.getDisplayMetrics(),
+                    base.getConfiguration());
+            mTheme = mResources.newTheme();
+            mTheme.applyStyle(
+                    org.ogasimli.healthbarview.library.test.R.style.HealthBarStyleTest_Theme,
+                    true);
+        }
+
+        @Override
+        public Resources getResources() {
+            return mResources;
+        }
+
+        @Override
+        public Resources.Theme getTheme() {
+            return mTheme;
+        }
+    }
+}
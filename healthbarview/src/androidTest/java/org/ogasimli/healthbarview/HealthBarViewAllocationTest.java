@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2018 Orkhan Gasimli - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * This file is proprietary and confidential.
+ * Written by Orkhan Gasimli <orkhan.gasimli@gmail.com> in 2018.
+ */
+
+package org.ogasimli.healthbarview;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.os.Debug;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.view.View.MeasureSpec;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Instrumented test guarding the draw and animation frame paths of HealthBarView against
+ * allocations.
+ *
+ * @see <a href="http://d.android.com/tools/testing">Testing documentation</a>
+ */
+@RunWith(AndroidJUnit4.class)
+@SuppressWarnings("deprecation")
+public class HealthBarViewAllocationTest {
+
+    private static final int VIEW_WIDTH = 1080;
+
+    private static final int WARM_UP_FRAMES = 10;
+
+    private static final int MEASURED_FRAMES = 100;
+
+    private static final long FRAME_NANOS = 16666667;
+
+    // Long enough for animations not to end while measured
+    private static final int ANIMATION_DURATION = 60000;
+
+    // Number of frames between values set while animating, as when values are streamed
+    private static final int FRAMES_PER_VALUE = 5;
+
+    private HealthBarView mView;
+
+    private Canvas mCanvas;
+
+    private int mAllocations;
+
+    private long mFrameTimeNanos;
+
+    @Before
+    public void setUp() throws Exception {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            mView = new HealthBarView(InstrumentationRegistry.getTargetContext());
+            mView.setShowMinValue(true);
+            mView.setShowMaxValue(true);
+            mView.setShowValue(true);
+            mView.setShowLabel(true);
+            mView.setValue(42);
+
+            mView.measure(MeasureSpec.makeMeasureSpec(VIEW_WIDTH, MeasureSpec.EXACTLY),
+                    MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED));
+            mView.layout(0, 0, mView.getMeasuredWidth(), mView.getMeasuredHeight());
+            mCanvas = new Canvas(Bitmap.createBitmap(mView.getMeasuredWidth(),
+                    mView.getMeasuredHeight(), Bitmap.Config.ARGB_8888));
+        });
+    }
+
+    @Test
+    public void redrawingSameValue_doesNotAllocate() throws Exception {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            drawFrames(WARM_UP_FRAMES);
+
+            Debug.resetThreadAllocCount();
+            Debug.startAllocCounting();
+            drawFrames(MEASURED_FRAMES);
+            Debug.stopAllocCounting();
+            mAllocations = Debug.getThreadAllocCount();
+        });
+
+        assertEquals(0, mAllocations);
+    }
+
+    @Test
+    public void drawingChangingValues_doesNotAllocate() throws Exception {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            drawChangingFrames(WARM_UP_FRAMES);
+
+            Debug.resetThreadAllocCount();
+            Debug.startAllocCounting();
+            drawChangingFrames(MEASURED_FRAMES);
+            Debug.stopAllocCounting();
+            mAllocations = Debug.getThreadAllocCount();
+        });
+
+        assertEquals(0, mAllocations);
+    }
+
+    @Test
+    public void animationFrames_doNotAllocate() throws Exception {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            mView.onAttachedToWindow();
+            mView.setAnimated(true);
+            mView.setAnimationDuration(ANIMATION_DURATION);
+            mFrameTimeNanos = System.nanoTime();
+            animateFrames(WARM_UP_FRAMES);
+
+            Debug.resetThreadAllocCount();
+            Debug.startAllocCounting();
+            animateFrames(MEASURED_FRAMES);
+            Debug.stopAllocCounting();
+            mAllocations = Debug.getThreadAllocCount();
+            mView.onDetachedFromWindow();
+        });
+
+        assertEquals(0, mAllocations);
+    }
+
+    private void drawFrames(int count) {
+        for (int i = 0; i < count; i++) {
+            mView.onDraw(mCanvas);
+        }
+    }
+
+    private void drawChangingFrames(int count) {
+        for (int i = 0; i < count; i++) {
+            // Values away from rounding ties, which are formatted by DecimalFormat
+            mView.setValue(i % 100 + 0.123);
+            mView.onDraw(mCanvas);
+        }
+    }
+
+    /**
+     * Advance animation of value frame by frame, as the animation ticker does, retargeting it
+     * periodically. Frames are driven directly, since ticker frames are not delivered while
+     * the main thread is blocked by the test.
+     */
+    private void animateFrames(int count) {
+        Value value = mView.getValueElement();
+        for (int i = 0; i < count; i++) {
+            if (i % FRAMES_PER_VALUE == 0) {
+                mView.setValue(i % 2 == 0 ? 100 : 0.123);
+            }
+            mFrameTimeNanos += FRAME_NANOS;
+            value.onFrame(mFrameTimeNanos);
+            mView.onDraw(mCanvas);
+        }
+    }
+}
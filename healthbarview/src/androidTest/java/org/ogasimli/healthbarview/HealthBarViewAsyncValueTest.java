@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2018 Orkhan Gasimli - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * This file is proprietary and confidential.
+ * Written by Orkhan Gasimli <orkhan.gasimli@gmail.com> in 2018.
+ */
+
+package org.ogasimli.healthbarview;
+
+import android.content.Context;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Instrumented tests of setting value from background threads. Views are detached from window,
+ * so that values are posted the way they are before the view is attached or after it's detached.
+ *
+ * @see <a href="http://d.android.com/tools/testing">Testing documentation</a>
+ */
+@RunWith(AndroidJUnit4.class)
+public class HealthBarViewAsyncValueTest {
+
+    private static final int THREAD_COUNT = 8;
+
+    private static final int VALUES_PER_THREAD = 100000;
+
+    private static final double FINAL_VALUE = 42.5;
+
+    private static final double DELTA = 1e-9;
+
+    private static final double NEXT_VALUE = 57.5;
+
+    private CountingHealthBarView mView;
+
+    @Test
+    public void setValueAsync_appliesLatestValueUnderContention() throws Exception {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> mView =
+                new CountingHealthBarView(InstrumentationRegistry.getTargetContext()));
+
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[THREAD_COUNT];
+        for (int t = 0; t < THREAD_COUNT; t++) {
+            int offset = t;
+            threads[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < VALUES_PER_THREAD; i++) {
+                    mView.setValueAsync((offset * VALUES_PER_THREAD + i) % 100);
+                }
+            });
+            threads[t].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // The last value published after all others must win
+        Thread last = new Thread(() -> mView.setValueAsync(FINAL_VALUE));
+        last.start();
+        last.join();
+        waitForFrames();
+
+        assertEquals(FINAL_VALUE, mView.getValue(), DELTA);
+        // Updates are applied at most once per frame, not per value
+        assertTrue(mView.mApplies.get() < THREAD_COUNT * VALUES_PER_THREAD / 100);
+    }
+
+    @Test
+    public void setValueAsync_appliesValuesToDetachedView() throws Exception {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> mView =
+                new CountingHealthBarView(InstrumentationRegistry.getTargetContext()));
+
+        setValueFromBackgroundThread(FINAL_VALUE);
+        waitForFrames();
+        assertEquals(FINAL_VALUE, mView.getValue(), DELTA);
+
+        // Applying the value must re-arm posting of the following values
+        setValueFromBackgroundThread(NEXT_VALUE);
+        waitForFrames();
+        assertEquals(NEXT_VALUE, mView.getValue(), DELTA);
+        assertEquals(2, mView.mApplies.get());
+    }
+
+    private void setValueFromBackgroundThread(double value) throws InterruptedException {
+        Thread thread = new Thread(() -> mView.setValueAsync(value));
+        thread.start();
+        thread.join();
+    }
+
+    private static void waitForFrames() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+            Thread.sleep(50);
+        }
+    }
+
+    private static class CountingHealthBarView extends HealthBarView {
+
+        private final AtomicInteger mApplies = new AtomicInteger();
+
+        CountingHealthBarView(Context context) {
+            super(context);
+        }
+
+        @Override
+        public void setValue(double value) {
+            mApplies.incrementAndGet();
+            super.setValue(value);
+        }
+    }
+}
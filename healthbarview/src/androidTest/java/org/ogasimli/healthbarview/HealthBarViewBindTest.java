@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2018 Orkhan Gasimli - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * This file is proprietary and confidential.
+ * Written by Orkhan Gasimli <orkhan.gasimli@gmail.com> in 2018.
+ */
+
+package org.ogasimli.healthbarview;
+
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Instrumented test of binding HealthBarView to a source of values.
+ *
+ * @see <a href="http://d.android.com/tools/testing">Testing documentation</a>
+ */
+@RunWith(AndroidJUnit4.class)
+public class HealthBarViewBindTest {
+
+    private HealthBarView mView;
+
+    private final TestValueSource mSource = new TestValueSource();
+
+    @Before
+    public void setUp() throws Exception {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> mView =
+                new HealthBarView(InstrumentationRegistry.getTargetContext()));
+    }
+
+    @Test
+    public void bind_listensOnlyWhileAttached() throws Exception {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            mView.bind(mSource);
+            assertEquals(0, mSource.mListeners.size());
+
+            mView.onAttachedToWindow();
+            assertEquals(1, mSource.mListeners.size());
+
+            mView.onDetachedFromWindow();
+            assertEquals(0, mSource.mListeners.size());
+        });
+    }
+
+    @Test
+    public void unbind_removesListener() throws Exception {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            mView.onAttachedToWindow();
+            mView.bind(mSource);
+            assertEquals(1, mSource.mListeners.size());
+
+            mView.unbind();
+            assertEquals(0, mSource.mListeners.size());
+            mView.onDetachedFromWindow();
+        });
+    }
+
+    private static class TestValueSource implements ValueSource {
+
+        private final List<Listener> mListeners = new ArrayList<>();
+
+        @Override
+        public void addListener(Listener listener) {
+            mListeners.add(listener);
+        }
+
+        @Override
+        public void removeListener(Listener listener) {
+            mListeners.remove(listener);
+        }
+    }
+}
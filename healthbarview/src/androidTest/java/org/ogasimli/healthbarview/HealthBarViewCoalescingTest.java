@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2018 Orkhan Gasimli - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * This file is proprietary and confidential.
+ * Written by Orkhan Gasimli <orkhan.gasimli@gmail.com> in 2018.
+ */
+
+package org.ogasimli.healthbarview;
+
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Instrumented test of coalescing value updates within a frame.
+ *
+ * @see <a href="http://d.android.com/tools/testing">Testing documentation</a>
+ */
+@RunWith(AndroidJUnit4.class)
+public class HealthBarViewCoalescingTest {
+
+    private static final double DELTA = 1e-9;
+
+    private HealthBarView mView;
+
+    private double mValueBeforeFrame;
+
+    @Before
+    public void setUp() throws Exception {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            mView = new HealthBarView(InstrumentationRegistry.getTargetContext());
+            // Coalesced values of views not attached to window are not applied
+            mView.onAttachedToWindow();
+            mView.setValue(10);
+            mView.setValueCoalesced(true);
+        });
+    }
+
+    @Test
+    public void coalescedValues_areAppliedOnNextFrame() throws Exception {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            mView.setValue(20);
+            mView.setValue(30);
+            mValueBeforeFrame = mView.getValue();
+        });
+        InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+        Thread.sleep(100);
+
+        assertEquals(10, mValueBeforeFrame, DELTA);
+        assertEquals(30, mView.getValue(), DELTA);
+    }
+
+    @Test
+    public void coalescedValues_areAggregated() throws Exception {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            mView.setValueAggregation(HealthBarView.AGGREGATION_MAX);
+            mView.setValue(20);
+            mView.setValue(90);
+            mView.setValue(30);
+            mView.setValueCoalesced(false);
+        });
+
+        assertEquals(90, mView.getValue(), DELTA);
+    }
+
+    @Test
+    public void coalescedValues_areAveraged() throws Exception {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            mView.setValueAggregation(HealthBarView.AGGREGATION_MEAN);
+            mView.setValue(20);
+            mView.setValue(40);
+            mView.setValueCoalesced(false);
+        });
+
+        assertEquals(30, mView.getValue(), DELTA);
+    }
+}
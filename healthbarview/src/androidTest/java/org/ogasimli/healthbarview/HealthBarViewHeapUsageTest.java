@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2018 Orkhan Gasimli - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * This file is proprietary and confidential.
+ * Written by Orkhan Gasimli <orkhan.gasimli@gmail.com> in 2018.
+ */
+
+package org.ogasimli.healthbarview;
+
+import android.content.Context;
+import android.graphics.Typeface;
+import android.os.Debug;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Instrumented test of the growth of used java heap per HealthBarView instance, which
+ * approximates the size of instance, but isn't a retained size measurement.
+ * Run with instrumentation argument "dumpHeap true" to also write a heap dump to the files
+ * directory of the app, in which retained size can be inspected with a heap analyzer.
+ *
+ * @see <a href="http://d.android.com/tools/testing">Testing documentation</a>
+ */
+@RunWith(AndroidJUnit4.class)
+public class HealthBarViewHeapUsageTest {
+
+    private static final String LOG_TAG = HealthBarViewHeapUsageTest.class.getSimpleName();
+
+    private static final int INSTANCE_COUNT = 1000;
+
+    // Budget of growth of used java heap per view with default configuration
+    private static final long MAX_HEAP_GROWTH_PER_INSTANCE = 8 * 1024;
+
+    private HealthBarView[] mViews;
+
+    @Test
+    public void paintPool_sharesPaintsOfEqualConfiguration() throws Exception {
+        assertSame(PaintPool.obtainTextPaint(0xff009688, 48, Typeface.MONOSPACE),
+                PaintPool.obtainTextPaint(0xff009688, 48, Typeface.MONOSPACE));
+        assertNotSame(PaintPool.obtainTextPaint(0xff009688, 48, Typeface.MONOSPACE),
+                PaintPool.obtainTextPaint(0xff009688, 49, Typeface.MONOSPACE));
+        assertSame(PaintPool.obtainStrokePaint(0xff009688, 3),
+                PaintPool.obtainStrokePaint(0xff009688, 3));
+        assertSame(PaintPool.obtainGradientPaint(new int[]{1, 2}, null, 0, 0, 100, 10),
+                PaintPool.obtainGradientPaint(new int[]{1, 2}, null, 0, 0, 100, 10));
+    }
+
+    @Test
+    public void usedHeapGrowthPerInstance_staysWithinBudget() throws Exception {
+        Context context = InstrumentationRegistry.getTargetContext();
+        long before = usedHeap();
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            mViews = new HealthBarView[INSTANCE_COUNT];
+            for (int i = 0; i < INSTANCE_COUNT; i++) {
+                mViews[i] = new HealthBarView(context);
+            }
+        });
+        long growthPerInstance = (usedHeap() - before) / INSTANCE_COUNT;
+        Log.i(LOG_TAG, "Used heap growth per instance: " + growthPerInstance + " bytes");
+
+        if (Boolean.parseBoolean(InstrumentationRegistry.getArguments().getString("dumpHeap"))) {
+            File dump = new File(context.getFilesDir(), "healthbarview.hprof");
+            Debug.dumpHprofData(dump.getAbsolutePath());
+            Log.i(LOG_TAG, "Heap dump written to " + dump);
+        }
+
+        assertTrue(mViews.length == INSTANCE_COUNT);
+        assertTrue(growthPerInstance < MAX_HEAP_GROWTH_PER_INSTANCE);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            runtime.gc();
+            runtime.runFinalization();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
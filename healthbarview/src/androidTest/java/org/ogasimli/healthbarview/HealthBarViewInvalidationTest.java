@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2018 Orkhan Gasimli - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * This file is proprietary and confidential.
+ * Written by Orkhan Gasimli <orkhan.gasimli@gmail.com> in 2018.
+ */
+
+package org.ogasimli.healthbarview;
+
+import android.content.Context;
+import android.content.res.ColorStateList;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.view.View.MeasureSpec;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Instrumented test of partial invalidation on change of value.
+ *
+ * @see <a href="http://d.android.com/tools/testing">Testing documentation</a>
+ */
+@RunWith(AndroidJUnit4.class)
+@SuppressWarnings("deprecation")
+public class HealthBarViewInvalidationTest {
+
+    private static final int VIEW_WIDTH = 1080;
+
+    // Indicator width in dp, stroke of which spans well beyond the margin of dirty region
+    private static final float WIDE_INDICATOR_WIDTH = 12;
+
+    private RecordingHealthBarView mView;
+
+    private int mInvalidationsWithinBatch;
+
+    private Bitmap mBefore;
+
+    private Bitmap mAfter;
+
+    @Before
+    public void setUp() throws Exception {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            mView = new RecordingHealthBarView(InstrumentationRegistry.getTargetContext());
+            mView.setShowValue(true);
+            mView.setShowLabel(true);
+            mView.setValue(42);
+
+            drawToBitmap();
+            mView.reset();
+        });
+    }
+
+    @Test
+    public void changingValue_invalidatesOnlyDynamicRegion() throws Exception {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> mView.setValue(80));
+
+        assertEquals(0, mView.mFullInvalidations);
+        assertEquals(1, mView.mPartialInvalidations);
+        assertTrue(mView.mDirty.width() < mView.getWidth());
+    }
+
+    @Test
+    public void changingValueWithWideIndicator_invalidatesAllChangedPixels() throws Exception {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            mView.setIndicatorWidth(WIDE_INDICATOR_WIDTH);
+            mBefore = drawToBitmap();
+            mView.reset();
+
+            mView.setValue(80);
+            mAfter = drawToBitmap();
+        });
+
+        assertEquals(1, mView.mPartialInvalidations);
+        // Stroke of indicator at both old and new position lies within the dirty region
+        for (int y = 0; y < mBefore.getHeight(); y++) {
+            for (int x = 0; x < mBefore.getWidth(); x++) {
+                if (mBefore.getPixel(x, y) != mAfter.getPixel(x, y)) {
+                    assertTrue("Changed pixel " + x + "," + y + " outside of " + mView.mDirty,
+                            mView.mDirty.contains(x, y));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void changingValueWithoutVisibleEffect_skipsInvalidation() throws Exception {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> mView.setValue(42.0001));
+
+        assertEquals(0, mView.mFullInvalidations);
+        assertEquals(0, mView.mPartialInvalidations);
+    }
+
+    @Test
+    public void changingBoundsWithinMeasuredSize_onlyInvalidates() throws Exception {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(
+                () -> mView.setValueSuffix(" pts"));
+
+        assertEquals(0, mView.mLayoutRequests);
+        assertEquals(1, mView.mFullInvalidations);
+    }
+
+    @Test
+    public void changingBoundsAffectingMeasuredSize_requestsLayout() throws Exception {
+        // Height is measured with unspecified spec, hence grows with the text size of label
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(
+                () -> mView.setLabelTextSize(30));
+
+        assertEquals(1, mView.mLayoutRequests);
+    }
+
+    @Test
+    public void settingSameColor_skipsInvalidation() throws Exception {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            mView.setValueTextColor(mView.getValueTextColor());
+            mView.setIndicatorColor(ColorStateList.valueOf(mView.getIndicatorColor()));
+        });
+
+        assertEquals(0, mView.mFullInvalidations);
+        assertEquals(0, mView.mPartialInvalidations);
+    }
+
+    @Test
+    public void batchEdit_issuesSingleLayoutRequestAndInvalidation() throws Exception {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> mView.edit(() -> {
+            mView.setStrokeColor(0xff000000);
+            mView.setIndicatorColor(0xff000000);
+            mView.setLabels(new String[]{"Low", "High"});
+            mView.setLabelTextSize(30);
+            mView.setValueSuffix(" pts");
+            mView.setValue(80);
+        }));
+
+        assertEquals(1, mView.mLayoutRequests);
+        assertEquals(1, mView.mFullInvalidations);
+        assertEquals(0, mView.mPartialInvalidations);
+    }
+
+    @Test
+    public void nestedBatchEdit_appliesChangesOnceOutermostEnds() throws Exception {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            mView.beginBatchEdit();
+            mView.edit(() -> mView.setStrokeColor(0xff000000));
+            mInvalidationsWithinBatch = mView.mFullInvalidations;
+            mView.endBatchEdit();
+        });
+
+        assertEquals(0, mInvalidationsWithinBatch);
+        assertEquals(1, mView.mFullInvalidations);
+        assertEquals(0, mView.mLayoutRequests);
+    }
+
+    @Test
+    public void batchEditOfValue_invalidatesOnlyDynamicRegion() throws Exception {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> mView.edit(() -> {
+            mView.setValue(60);
+            mView.setValue(80);
+        }));
+
+        assertEquals(0, mView.mFullInvalidations);
+        assertEquals(1, mView.mPartialInvalidations);
+    }
+
+    /**
+     * Lay out the view if needed and draw it into a new bitmap
+     */
+    private Bitmap drawToBitmap() {
+        mView.measure(MeasureSpec.makeMeasureSpec(VIEW_WIDTH, MeasureSpec.EXACTLY),
+                MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED));
+        mView.layout(0, 0, mView.getMeasuredWidth(), mView.getMeasuredHeight());
+        Bitmap bitmap = Bitmap.createBitmap(mView.getMeasuredWidth(), mView.getMeasuredHeight(),
+                Bitmap.Config.ARGB_8888);
+        mView.draw(new Canvas(bitmap));
+        return bitmap;
+    }
+
+    private static class RecordingHealthBarView extends HealthBarView {
+
+        private int mLayoutRequests;
+
+        private int mFullInvalidations;
+
+        private int mPartialInvalidations;
+
+        private final Rect mDirty = new Rect();
+
+        RecordingHealthBarView(Context context) {
+            super(context);
+        }
+
+        void reset() {
+            mLayoutRequests = 0;
+            mFullInvalidations = 0;
+            mPartialInvalidations = 0;
+            mDirty.setEmpty();
+        }
+
+        // Calls within batch edit are postponed by HealthBarView, hence not counted
+
+        @Override
+        public void requestLayout() {
+            if (!isInBatchEdit()) mLayoutRequests++;
+            super.requestLayout();
+        }
+
+        @Override
+        public void invalidate() {
+            if (!isInBatchEdit()) mFullInvalidations++;
+            super.invalidate();
+        }
+
+        @Override
+        public void invalidate(int l, int t, int r, int b) {
+            mPartialInvalidations++;
+            mDirty.union(l, t, r, b);
+            super.invalidate(l, t, r, b);
+        }
+    }
+}
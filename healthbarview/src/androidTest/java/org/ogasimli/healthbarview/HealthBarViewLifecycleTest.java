@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2018 Orkhan Gasimli - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * This file is proprietary and confidential.
+ * Written by Orkhan Gasimli <orkhan.gasimli@gmail.com> in 2018.
+ */
+
+package org.ogasimli.healthbarview;
+
+import android.content.Context;
+import android.os.Build;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Instrumented test of pausing animations of views which aren't displayed.
+ *
+ * @see <a href="http://d.android.com/tools/testing">Testing documentation</a>
+ */
+@RunWith(AndroidJUnit4.class)
+public class HealthBarViewLifecycleTest {
+
+    private static final long ANIMATION_DURATION = 10000;
+
+    private static final long WAIT_MILLIS = 200;
+
+    // Longer than the delay the hardware layer is kept for after animation ends
+    private static final long LAYER_RELEASE_WAIT_MILLIS = 500;
+
+    private FrameCountingHealthBarView mView;
+
+    @Before
+    public void setUp() throws Exception {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            mView = new FrameCountingHealthBarView(InstrumentationRegistry.getTargetContext());
+            mView.setAnimated(true);
+            mView.setAnimationDuration(ANIMATION_DURATION);
+            mView.onAttachedToWindow();
+            mView.setValue(100);
+        });
+    }
+
+    @Test
+    public void detachedView_receivesNoFrames() throws Exception {
+        Thread.sleep(WAIT_MILLIS);
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            assertTrue(mView.mFrames > 0);
+            mView.onDetachedFromWindow();
+            mView.mFrames = 0;
+        });
+        Thread.sleep(WAIT_MILLIS);
+
+        assertEquals(0, mView.mFrames);
+    }
+
+    @Test
+    public void invisibleView_receivesNoFrames() throws Exception {
+        // onVisibilityAggregated is available since Nougat
+        assumeTrue(Build.VERSION.SDK_INT >= Build.VERSION_CODES.N);
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            mView.onVisibilityAggregated(false);
+            mView.mFrames = 0;
+        });
+        Thread.sleep(WAIT_MILLIS);
+
+        assertEquals(0, mView.mFrames);
+    }
+
+    @Test
+    public void reattachedView_resumesAnimation() throws Exception {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            mView.onDetachedFromWindow();
+            mView.mFrames = 0;
+            mView.onAttachedToWindow();
+        });
+        Thread.sleep(WAIT_MILLIS);
+
+        assertTrue(mView.mFrames > 0);
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(
+                () -> mView.onDetachedFromWindow());
+    }
+
+    @Test
+    public void layerPolicyWhileAnimating_holdsLayerOnlyWhileAnimationRuns() throws Exception {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            assertEquals(View.LAYER_TYPE_NONE, mView.getLayerType());
+
+            mView.setLayerPolicy(HealthBarView.LAYER_POLICY_WHILE_ANIMATING);
+            assertEquals(View.LAYER_TYPE_HARDWARE, mView.getLayerType());
+
+            mView.onDetachedFromWindow();
+            assertEquals(View.LAYER_TYPE_NONE, mView.getLayerType());
+        });
+    }
+
+    @Test
+    public void layerPolicyWhileAnimating_keepsLayerBetweenStreamedAnimations() throws Exception {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            mView.setLayerPolicy(HealthBarView.LAYER_POLICY_WHILE_ANIMATING);
+            // Animation ends, and the next value animates again within a few frames
+            mView.setAnimated(false);
+            mView.setValue(50);
+            assertEquals(View.LAYER_TYPE_HARDWARE, mView.getLayerType());
+            mView.setAnimated(true);
+            mView.setValue(100);
+        });
+        Thread.sleep(LAYER_RELEASE_WAIT_MILLIS);
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            assertEquals(View.LAYER_TYPE_HARDWARE, mView.getLayerType());
+            mView.setAnimated(false);
+            mView.setValue(50);
+        });
+        Thread.sleep(LAYER_RELEASE_WAIT_MILLIS);
+
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(
+                () -> assertEquals(View.LAYER_TYPE_NONE, mView.getLayerType()));
+    }
+
+    private static class FrameCountingHealthBarView extends HealthBarView {
+
+        // Accessed on the main thread only
+        private int mFrames;
+
+        FrameCountingHealthBarView(Context context) {
+            super(context);
+        }
+
+        @Override
+        void invalidateValue() {
+            mFrames++;
+            super.invalidateValue();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2018 Orkhan Gasimli - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * This file is proprietary and confidential.
+ * Written by Orkhan Gasimli <orkhan.gasimli@gmail.com> in 2018.
+ */
+
+package org.ogasimli.healthbarview;
+
+import android.graphics.Typeface;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.text.TextPaint;
+import android.view.View.MeasureSpec;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.text.DecimalFormat;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Instrumented test of measuring HealthBarView.
+ *
+ * @see <a href="http://d.android.com/tools/testing">Testing documentation</a>
+ */
+@RunWith(AndroidJUnit4.class)
+public class HealthBarViewMeasureTest {
+
+    private static final int MAX_WIDTH = 10000;
+
+    private HealthBarView mView;
+
+    private int mMeasuredWidth;
+
+    @Before
+    public void setUp() throws Exception {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            mView = new HealthBarView(InstrumentationRegistry.getTargetContext());
+            mView.setShowMinValue(false);
+            mView.setShowMaxValue(false);
+            mView.setShowValue(false);
+            mView.setShowLabel(true);
+            mView.setLabelTextSize(40);
+        });
+    }
+
+    @Test
+    public void stableMeasure_widthDoesNotDependOnValue() throws Exception {
+        int[] widths = new int[3];
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            mView.setShowLabel(false);
+            mView.setShowValue(true);
+            mView.setValueTextSize(60);
+            mView.setMaxValue(1000);
+
+            mView.setValue(888);
+            widths[0] = measureWrapContentWidth();
+
+            mView.setStableMeasure(true);
+            mView.setValue(1);
+            widths[1] = measureWrapContentWidth();
+            mView.setValue(888);
+            widths[2] = measureWrapContentWidth();
+        });
+
+        assertEquals(widths[1], widths[2]);
+        assertTrue(widths[1] >= widths[0]);
+    }
+
+    @Test
+    public void stableMeasure_fitsValuesWiderThanRangeBounds() throws Exception {
+        // Intermediate values have more fraction digits than bounds, and aren't cached
+        DecimalFormat decimalFormat = new DecimalFormat("0.###");
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            mView.setShowLabel(false);
+            mView.setShowValue(true);
+            mView.setValueFont(Typeface.SERIF);
+            mView.setValueDecimalFormat(decimalFormat);
+            mView.setValueTextCacheSize(0);
+            mView.setMaxValue(100);
+            mView.setStableMeasure(true);
+            mMeasuredWidth = measureWrapContentWidth();
+        });
+
+        TextPaint paint = new TextPaint();
+        paint.setTypeface(Typeface.SERIF);
+        paint.setTextSize(mView.getValueTextSize());
+        for (int i = 0; i <= 100000; i++) {
+            String text = decimalFormat.format(i / 1000.0);
+            assertTrue(text, mMeasuredWidth >= (int) paint.measureText(text) - 1);
+        }
+    }
+
+    @Test
+    public void stableMeasure_widthGrowsWithRange() throws Exception {
+        int[] widths = new int[2];
+        boolean[] layoutRequested = new boolean[1];
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            mView.setShowLabel(false);
+            mView.setShowValue(true);
+            mView.setValueTextSize(60);
+            mView.setStableMeasure(true);
+            widths[0] = measureWrapContentWidth();
+            mView.layout(0, 0, widths[0], mView.getMeasuredHeight());
+
+            mView.setMaxValue(10000);
+            layoutRequested[0] = mView.isLayoutRequested();
+            widths[1] = measureWrapContentWidth();
+        });
+
+        assertTrue(layoutRequested[0]);
+        assertTrue(widths[1] > widths[0]);
+    }
+
+    @Test
+    public void wrapContentWidth_fitsWidestLabelInPixels() throws Exception {
+        // Longest label by chars is narrower than the shorter one in proportional font
+        String[] labels = {"iiiiiiii", "WWWWWW"};
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            mView.setLabelFont(Typeface.SANS_SERIF);
+            mView.setLabels(labels);
+            mMeasuredWidth = measureWrapContentWidth();
+        });
+
+        TextPaint paint = new TextPaint();
+        paint.setTypeface(Typeface.SANS_SERIF);
+        paint.setTextSize(mView.getLabelTextSize());
+        assertTrue(paint.measureText(labels[1]) > paint.measureText(labels[0]));
+        assertTrue(mMeasuredWidth >= (int) paint.measureText(labels[1]) - 1);
+    }
+
+    private int measureWrapContentWidth() {
+        mView.measure(MeasureSpec.makeMeasureSpec(MAX_WIDTH, MeasureSpec.AT_MOST),
+                MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED));
+        return mView.getMeasuredWidth();
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2018 Orkhan Gasimli - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * This file is proprietary and confidential.
+ * Written by Orkhan Gasimli <orkhan.gasimli@gmail.com> in 2018.
+ */
+
+package org.ogasimli.healthbarview;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.os.SystemClock;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+import android.view.View.MeasureSpec;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.text.DecimalFormat;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Instrumented benchmark comparing per-frame draw cost of animating bars with and without
+ * static layer. Results are written to logcat under the StaticLayerBenchmark tag.
+ *
+ * @see <a href="http://d.android.com/tools/testing">Testing documentation</a>
+ */
+@RunWith(AndroidJUnit4.class)
+public class StaticLayerBenchmark {
+
+    private static final String LOG_TAG = StaticLayerBenchmark.class.getSimpleName();
+
+    private static final int BAR_COUNT = 40;
+
+    private static final int WARM_UP_FRAMES = 60;
+
+    private static final int MEASURED_FRAMES = 600;
+
+    private static final int VIEW_WIDTH = 1080;
+
+    private long mDirectFrameNanos;
+
+    private long mCachedFrameNanos;
+
+    @Test
+    public void staticLayer_reducesFrameCost() throws Exception {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            mDirectFrameNanos = measureFrameNanos(false);
+            mCachedFrameNanos = measureFrameNanos(true);
+        });
+
+        Log.i(LOG_TAG, String.format("%d bars, ns per frame: direct %d, static layer %d",
+                BAR_COUNT, mDirectFrameNanos, mCachedFrameNanos));
+        assertTrue(mCachedFrameNanos < mDirectFrameNanos);
+    }
+
+    /**
+     * Draw frames of all bars with changing value and return average duration of a frame
+     *
+     * @param staticLayerEnabled whether bars use static layer
+     */
+    private long measureFrameNanos(boolean staticLayerEnabled) {
+        HealthBarView[] views = new HealthBarView[BAR_COUNT];
+        for (int i = 0; i < BAR_COUNT; i++) {
+            views[i] = createView(staticLayerEnabled);
+        }
+        Canvas canvas = new Canvas(Bitmap.createBitmap(views[0].getMeasuredWidth(),
+                views[0].getMeasuredHeight(), Bitmap.Config.ARGB_8888));
+
+        drawFrames(views, canvas, WARM_UP_FRAMES);
+        long start = SystemClock.elapsedRealtimeNanos();
+        drawFrames(views, canvas, MEASURED_FRAMES);
+        return (SystemClock.elapsedRealtimeNanos() - start) / MEASURED_FRAMES;
+    }
+
+    private static HealthBarView createView(boolean staticLayerEnabled) {
+        HealthBarView view = new HealthBarView(InstrumentationRegistry.getTargetContext());
+        view.setStaticLayerEnabled(staticLayerEnabled);
+        view.setMinValue(-20);
+        view.setMaxValue(34);
+        view.setShowMinValue(true);
+        view.setShowMaxValue(true);
+        view.setMinValueSuffix(" pts");
+        view.setMaxValueSuffix(" pts");
+        view.setValueSuffix(" pts");
+        view.setValueDecimalFormat(new DecimalFormat("0.0"));
+        view.setGradientColors(new int[]{0xffff0000, 0xffffc200, 0xff7bfbaf});
+
+        view.measure(MeasureSpec.makeMeasureSpec(VIEW_WIDTH, MeasureSpec.EXACTLY),
+                MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED));
+        view.layout(0, 0, view.getMeasuredWidth(), view.getMeasuredHeight());
+        return view;
+    }
+
+    private static void drawFrames(HealthBarView[] views, Canvas canvas, int count) {
+        for (int frame = 0; frame < count; frame++) {
+            for (HealthBarView view : views) {
+                view.setValue(-20 + frame % 54 + 0.25);
+                view.draw(canvas);
+            }
+        }
+    }
+}
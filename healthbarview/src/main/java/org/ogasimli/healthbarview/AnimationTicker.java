@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2018 Orkhan Gasimli - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * This file is proprietary and confidential.
+ * Written by Orkhan Gasimli <orkhan.gasimli@gmail.com> in 2018.
+ */
+
+package org.ogasimli.healthbarview;
+
+import android.animation.ValueAnimator;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.RequiresApi;
+import android.view.Choreographer;
+
+/**
+ * Process-wide frame ticker advancing animations of all bars.
+ * Ticks are driven by Choreographer, or by a handler on devices before Jelly Bean.
+ * The ticker runs only while it has clients and doesn't allocate on frames.
+ * Must be used on the main thread only.
+ *
+ * @author Orkhan Gasimli on 17.10.2026.
+ */
+final class AnimationTicker {
+
+    //----------------------------------
+    // Static fields
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private static AnimationTicker sInstance;
+
+    // endregion static fields
+    //----------------------------------
+
+    //----------------------------------
+    // Member variables of the class
+
+    private final FrameScheduler mScheduler;
+
+    // Active clients, removed clients are null until the end of the current frame
+    private Client[] mClients = new Client[INITIAL_CAPACITY];
+
+    private int mClientCount;
+
+    private boolean mIsScheduled;
+
+    // endregion member variables
+    //----------------------------------
+
+    //----------------------------------
+    // Constructors
+
+    private AnimationTicker() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            mScheduler = new ChoreographerScheduler(this);
+        } else {
+            mScheduler = new HandlerScheduler(this);
+        }
+    }
+
+    // endregion constructors
+    //----------------------------------
+
+    //----------------------------------
+    // Helper methods
+
+    static AnimationTicker getInstance() {
+        if (sInstance == null) {
+            sInstance = new AnimationTicker();
+        }
+        return sInstance;
+    }
+
+    /**
+     * Start calling client on each frame until it settles
+     *
+     * @param client the client to add, ignored if it is already added
+     */
+    void add(Client client) {
+        for (int i = 0; i < mClientCount; i++) {
+            if (mClients[i] == client) return;
+        }
+        if (mClientCount == mClients.length) {
+            Client[] clients = new Client[mClientCount * 2];
+            System.arraycopy(mClients, 0, clients, 0, mClientCount);
+            mClients = clients;
+        }
+        mClients[mClientCount++] = client;
+        if (!mIsScheduled) {
+            mIsScheduled = true;
+            mScheduler.scheduleFrame();
+        }
+    }
+
+    /**
+     * Stop calling client on frames
+     *
+     * @param client the client to remove
+     */
+    void remove(Client client) {
+        for (int i = 0; i < mClientCount; i++) {
+            if (mClients[i] == client) {
+                mClients[i] = null;
+                return;
+            }
+        }
+    }
+
+    boolean contains(Client client) {
+        for (int i = 0; i < mClientCount; i++) {
+            if (mClients[i] == client) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Advance all clients to the frame time and remove clients which have settled
+     *
+     * @param frameTimeNanos the time of frame in System.nanoTime() time base
+     */
+    void doFrame(long frameTimeNanos) {
+        mIsScheduled = false;
+        // Clients added during this frame are advanced starting from the next frame
+        int count = mClientCount;
+        for (int i = 0; i < count; i++) {
+            Client client = mClients[i];
+            if (client != null && !client.onFrame(frameTimeNanos) && mClients[i] == client) {
+                mClients[i] = null;
+            }
+        }
+
+        // Compact the clients left
+        int left = 0;
+        for (int i = 0; i < mClientCount; i++) {
+            if (mClients[i] != null) {
+                mClients[left++] = mClients[i];
+            }
+        }
+        for (int i = left; i < mClientCount; i++) {
+            mClients[i] = null;
+        }
+        mClientCount = left;
+
+        if (mClientCount > 0 && !mIsScheduled) {
+            mIsScheduled = true;
+            mScheduler.scheduleFrame();
+        }
+    }
+
+    // endregion helper methods
+    //----------------------------------
+
+    /**
+     * Animation advanced by the ticker
+     */
+    interface Client {
+
+        /**
+         * Advance animation to the frame time
+         *
+         * @param frameTimeNanos the time of frame in System.nanoTime() time base
+         * @return true if animation should be advanced on the next frame as well
+         */
+        boolean onFrame(long frameTimeNanos);
+    }
+
+    /**
+     * Source of frames of the ticker
+     */
+    private interface FrameScheduler {
+
+        void scheduleFrame();
+    }
+
+    /**
+     * Scheduler synchronized with vsync
+     */
+    @RequiresApi(api = Build.VERSION_CODES.JELLY_BEAN)
+    private static final class ChoreographerScheduler implements FrameScheduler,
+            Choreographer.FrameCallback {
+
+        private final AnimationTicker mTicker;
+
+        private ChoreographerScheduler(AnimationTicker ticker) {
+            mTicker = ticker;
+        }
+
+        @Override
+        public void scheduleFrame() {
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            mTicker.doFrame(frameTimeNanos);
+        }
+    }
+
+    /**
+     * Scheduler posting frames with the default frame delay of animators
+     */
+    private static final class HandlerScheduler implements FrameScheduler, Runnable {
+
+        private final AnimationTicker mTicker;
+
+        private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+        private HandlerScheduler(AnimationTicker ticker) {
+            mTicker = ticker;
+        }
+
+        @Override
+        public void scheduleFrame() {
+            mHandler.postDelayed(this, ValueAnimator.getFrameDelay());
+        }
+
+        @Override
+        public void run() {
+            mTicker.doFrame(System.nanoTime());
+        }
+    }
+}
@@ -33,7 +33,7 @@ abstract class BaseValue extends BaseTextElement {
     //----------------------------------
     // Constructors
 
-    BaseValue(boolean isVisible, int textColor, int textSize, float value,
+    BaseValue(boolean isVisible, int textColor, int textSize, double value,
               String suffix, Typeface font, DecimalFormat decimalFormat) {
         super(isVisible, textColor, textSize, font);
         mValue = value;
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2018 Orkhan Gasimli - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * This file is proprietary and confidential.
+ * Written by Orkhan Gasimli <orkhan.gasimli@gmail.com> in 2018.
+ */
+
+package org.ogasimli.healthbarview;
+
+import android.content.Context;
+import android.content.res.ColorStateList;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.support.annotation.ColorInt;
+import android.support.annotation.ColorRes;
+import android.support.v4.content.ContextCompat;
+import android.util.SparseArray;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Cache of color resources resolved within themes.
+ * Color resources may reference theme attributes and have alternatives for configurations
+ * (e.g. night mode), so colors are cached per theme and are valid only for the configuration
+ * they were resolved in.
+ *
+ * @author Orkhan Gasimli on 17.10.2026.
+ */
+final class ColorCache {
+
+    //----------------------------------
+    // Static fields
+
+    // Resolved colors keyed by theme and then by resource id
+    private static final Map<Resources.Theme, ThemeColors> sCache = new WeakHashMap<>();
+
+    // endregion static fields
+    //----------------------------------
+
+    //----------------------------------
+    // Constructors
+
+    private ColorCache() {
+    }
+
+    // endregion constructors
+    //----------------------------------
+
+    //----------------------------------
+    // Helper methods
+
+    /**
+     * Get color state list of color resource, resolving it only if it wasn't resolved before
+     * within the theme and configuration of context
+     *
+     * @param context the context
+     * @param color   the color resource id, either of color or of color state list
+     * @throws Resources.NotFoundException if the resource doesn't exist
+     */
+    static ColorStateList getColorStateList(Context context, @ColorRes int color) {
+        Resources.Theme theme = context.getTheme();
+        Configuration configuration = context.getResources().getConfiguration();
+        synchronized (sCache) {
+            ThemeColors colors = sCache.get(theme);
+            ColorStateList colorStateList = colors != null ? colors.get(configuration, color)
+                    : null;
+            if (colorStateList != null) {
+                return colorStateList;
+            }
+        }
+
+        ColorStateList colorStateList = ContextCompat.getColorStateList(context, color);
+        synchronized (sCache) {
+            ThemeColors colors = sCache.get(theme);
+            if (colors == null) {
+                colors = new ThemeColors();
+                sCache.put(theme, colors);
+            }
+            colors.put(configuration, color, colorStateList);
+        }
+        return colorStateList;
+    }
+
+    /**
+     * Get default color of color resource
+     *
+     * @param context the context
+     * @param color   the color resource id
+     * @throws Resources.NotFoundException if the resource doesn't exist
+     */
+    @ColorInt
+    static int getColor(Context context, @ColorRes int color) {
+        return getColorStateList(context, color).getDefaultColor();
+    }
+
+    // endregion helper methods
+    //----------------------------------
+
+    /**
+     * Colors resolved within a theme, which are valid only for the configuration they were
+     * resolved in
+     */
+    private static final class ThemeColors {
+
+        private final Configuration mConfiguration = new Configuration();
+
+        private final SparseArray<ColorStateList> mColors = new SparseArray<>();
+
+        ColorStateList get(Configuration configuration, @ColorRes int color) {
+            return mConfiguration.equals(configuration) ? mColors.get(color) : null;
+        }
+
+        void put(Configuration configuration, @ColorRes int color, ColorStateList colors) {
+            // Colors resolved in another configuration are outdated
+            if (!mConfiguration.equals(configuration)) {
+                mColors.clear();
+                mConfiguration.setTo(configuration);
+            }
+            mColors.put(color, colors);
+        }
+    }
+}
@@ -8,11 +8,14 @@
 package org.ogasimli.healthbarview;
 
 import android.content.Context;
-import android.graphics.LinearGradient;
 import android.graphics.Paint;
-import android.graphics.Shader;
+import android.graphics.RectF;
+import android.support.annotation.ColorInt;
+import android.support.annotation.ColorRes;
 import android.view.View;
 
+import java.util.Arrays;
+
 /**
  * Class holding configurations of bar fill element
  *
@@ -37,12 +40,20 @@ class Fill {
 
     private final Context mContext;
 
-    private final Paint mPaint;
+    private Paint mPaint; //obtained from paint pool once bounds of gradient are known
 
     private int mStartColor;
 
     private int mEndColor;
 
+    private int[] mColors; //colors of multi-stop gradient, null if start and end colors are used
+
+    private float[] mPositions;
+
+    private final RectF mShaderBounds = new RectF();
+
+    private boolean mShaderDirty = true;
+
     // endregion member variables
     //----------------------------------
 
@@ -54,7 +65,6 @@ class Fill {
         mEndColor = endColor;
         mView = view;
         mContext = context;
-        mPaint = setupPaint();
     }
 
     Fill(View view, Context context) {
@@ -62,7 +72,6 @@ class Fill {
         mEndColor = DEFAULT_END_COLOR;
         mView = view;
         mContext = context;
-        mPaint = setupPaint();
     }
 
     // endregion constructors
@@ -72,20 +81,10 @@ class Fill {
     // Helper methods
 
     /**
-     * Setup paint object
-     * Call only if changes to color or size properties are not visible.
-     *
-     * @return setup and return TextPaint object
-     */
-    private Paint setupPaint() {
-        Paint paint = new Paint();
-        paint.setAntiAlias(true);
-        paint.setStyle(Paint.Style.FILL);
-        return paint;
-    }
-
-    /**
-     * Set gradient shader to paint object
+     * Set gradient shader to paint object.
+     * The paint with shader is obtained from the pool of shared paints, hence views with equal
+     * bounds and colors share it. It's replaced only if bounds or colors have changed since
+     * last call.
      *
      * @param left      The left-coordinate for the start of the gradient line
      * @param top       The top-coordinate for the start of the gradient line
@@ -93,8 +92,26 @@ class Fill {
      * @param bottom    The bottom-coordinate for the end of the gradient line
      */
     void setPainShader(float left, float top, float right, float bottom) {
-        mPaint.setShader(new LinearGradient(left, top, right, bottom, mStartColor, mEndColor,
-                Shader.TileMode.CLAMP));
+        if (!mShaderDirty && mShaderBounds.left == left && mShaderBounds.top == top
+                && mShaderBounds.right == right && mShaderBounds.bottom == bottom) {
+            return;
+        }
+        mShaderBounds.set(left, top, right, bottom);
+        mShaderDirty = false;
+        int[] colors = mColors != null ? mColors : new int[]{mStartColor, mEndColor};
+        mPaint = PaintPool.obtainGradientPaint(colors, mPositions, left, top, right, bottom);
+    }
+
+    /**
+     * Recreate gradient shader with the last bounds after change of colors.
+     * Bounds are assigned only in layout pass, hence the shader is not touched while drawing.
+     */
+    private void updatePaintShader() {
+        mShaderDirty = true;
+        if (mPaint != null) {
+            setPainShader(mShaderBounds.left, mShaderBounds.top, mShaderBounds.right,
+                    mShaderBounds.bottom);
+        }
     }
 
     // endregion helper methods
@@ -115,17 +132,83 @@ class Fill {
         return mStartColor;
     }
 
-    void setStartColor(int startColor) {
-        mStartColor = Util.colorSetter(mContext, startColor);
+    void setStartColor(@ColorInt int color) {
+        if (mColors == null && color == mStartColor) return;
+        mStartColor = color;
+        mColors = null;
+        mPositions = null;
+        updatePaintShader();
         mView.invalidate();
     }
 
+    void setStartColorResource(@ColorRes int startColor) {
+        setStartColor(ColorCache.getColor(mContext, startColor));
+    }
+
     int getEndColor() {
         return mEndColor;
     }
 
-    void setEndColor(int endColor) {
-        mEndColor = Util.colorSetter(mContext, endColor);
+    void setEndColor(@ColorInt int color) {
+        if (mColors == null && color == mEndColor) return;
+        mEndColor = color;
+        mColors = null;
+        mPositions = null;
+        updatePaintShader();
         mView.invalidate();
     }
+
+    void setEndColorResource(@ColorRes int endColor) {
+        setEndColor(ColorCache.getColor(mContext, endColor));
+    }
+
+    int[] getColors() {
+        return mColors != null ? mColors.clone() : new int[]{mStartColor, mEndColor};
+    }
+
+    float[] getPositions() {
+        return mPositions != null ? mPositions.clone() : null;
+    }
+
+    /**
+     * Set colors of multi-stop gradient.
+     * First and last colors replace start and end colors of the bar.
+     *
+     * @param colors    the colors distributed along the gradient line. Should contain at least
+     *                  2 colors.
+     * @param positions the relative positions [0..1] of each corresponding color in the colors
+     *                  array. If null, colors are distributed evenly.
+     */
+    void setColors(@ColorInt int[] colors, float[] positions) {
+        if (colors == null || colors.length < 2) {
+            throw new IllegalArgumentException("Gradient needs at least 2 colors");
+        }
+        if (positions != null && positions.length != colors.length) {
+            throw new IllegalArgumentException("Color and position arrays must be of equal length");
+        }
+        if (Arrays.equals(colors, mColors) && Arrays.equals(positions, mPositions)) return;
+        mColors = colors.clone();
+        mPositions = positions != null ? positions.clone() : null;
+        mStartColor = colors[0];
+        mEndColor = colors[colors.length - 1];
+        updatePaintShader();
+        mView.invalidate();
+    }
+
+    /**
+     * Set colors of multi-stop gradient from color resources
+     *
+     * @param colors    the color resource ids distributed along the gradient line
+     * @param positions the relative positions [0..1] of each corresponding color, or null
+     */
+    void setColorResources(@ColorRes int[] colors, float[] positions) {
+        if (colors == null) {
+            throw new IllegalArgumentException("Gradient needs at least 2 colors");
+        }
+        int[] resolvedColors = new int[colors.length];
+        for (int i = 0; i < colors.length; i++) {
+            resolvedColors[i] = ColorCache.getColor(mContext, colors[i]);
+        }
+        setColors(resolvedColors, positions);
+    }
 }
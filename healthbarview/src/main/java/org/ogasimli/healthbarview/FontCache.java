@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2018 Orkhan Gasimli - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * This file is proprietary and confidential.
+ * Written by Orkhan Gasimli <orkhan.gasimli@gmail.com> in 2018.
+ */
+
+package org.ogasimli.healthbarview;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Typeface;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Process;
+import android.support.annotation.FontRes;
+import android.support.v4.content.res.ResourcesCompat;
+import android.util.Log;
+import android.util.SparseArray;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Process-wide cache of typefaces loaded from font resources.
+ * Fonts are loaded on a background thread and only once, no matter how many elements
+ * request them. Both local and downloadable fonts are loaded off the main thread.
+ *
+ * @author Orkhan Gasimli on 17.10.2026.
+ */
+final class FontCache {
+
+    //----------------------------------
+    // Static fields
+
+    private static final String LOG_TAG = FontCache.class.getSimpleName();
+
+    private static final SparseArray<Typeface> sTypefaces = new SparseArray<>();
+
+    // Callbacks waiting for fonts being loaded
+    private static final SparseArray<List<Callback>> sPendingCallbacks = new SparseArray<>();
+
+    private static final Handler sMainHandler = new Handler(Looper.getMainLooper());
+
+    // Thread loading fonts, running only while fonts are being loaded
+    private static HandlerThread sLoaderThread;
+
+    private static Handler sLoaderHandler;
+
+    // endregion static fields
+    //----------------------------------
+
+    //----------------------------------
+    // Constructors
+
+    private FontCache() {
+    }
+
+    // endregion constructors
+    //----------------------------------
+
+    //----------------------------------
+    // Helper methods
+
+    /**
+     * Get typeface of font resource. Must be called on the main thread.
+     * Callback is called immediately if the font is cached, and otherwise on the main thread
+     * once the font is loaded. Callback isn't called if the font can't be loaded.
+     *
+     * @param context  the context
+     * @param font     the font resource id
+     * @param callback the callback receiving the typeface
+     */
+    static void load(Context context, @FontRes int font, Callback callback) {
+        Typeface typeface;
+        synchronized (sTypefaces) {
+            typeface = sTypefaces.get(font);
+            if (typeface == null) {
+                List<Callback> callbacks = sPendingCallbacks.get(font);
+                if (callbacks != null) {
+                    callbacks.add(callback);
+                    return;
+                }
+                callbacks = new ArrayList<>();
+                callbacks.add(callback);
+                sPendingCallbacks.put(font, callbacks);
+            }
+        }
+        if (typeface != null) {
+            callback.onFontLoaded(font, typeface);
+            return;
+        }
+
+        Context appContext = context.getApplicationContext();
+        loaderHandler().post(() -> loadFont(appContext, font));
+    }
+
+    /**
+     * Load font on the loader thread. ResourcesCompat reads local fonts on the calling thread,
+     * and replies to requests of downloadable fonts on the looper of calling thread,
+     * while the result is delivered on the main thread.
+     *
+     * @param context the application context
+     * @param font    the font resource id
+     */
+    private static void loadFont(Context context, @FontRes int font) {
+        try {
+            ResourcesCompat.getFont(context, font, new ResourcesCompat.FontCallback() {
+                @Override
+                public void onFontRetrieved(Typeface typeface) {
+                    deliver(font, typeface);
+                }
+
+                @Override
+                public void onFontRetrievalFailed(int reason) {
+                    Log.w(LOG_TAG, "Failed to load font " + font + ", reason " + reason);
+                    deliver(font, null);
+                }
+            }, sMainHandler);
+        } catch (Resources.NotFoundException e) {
+            Log.w(LOG_TAG, e.getMessage());
+            sMainHandler.post(() -> deliver(font, null));
+        }
+    }
+
+    /**
+     * Get handler of the loader thread, starting the thread if it isn't running
+     */
+    private static Handler loaderHandler() {
+        if (sLoaderThread == null) {
+            sLoaderThread = new HandlerThread(LOG_TAG, Process.THREAD_PRIORITY_BACKGROUND);
+            sLoaderThread.start();
+            sLoaderHandler = new Handler(sLoaderThread.getLooper());
+        }
+        return sLoaderHandler;
+    }
+
+    /**
+     * Cache the loaded typeface and pass it to the waiting callbacks. Called on the main thread.
+     *
+     * @param font     the font resource id
+     * @param typeface the typeface, or null if loading failed
+     */
+    private static void deliver(@FontRes int font, Typeface typeface) {
+        List<Callback> callbacks;
+        boolean isIdle;
+        synchronized (sTypefaces) {
+            if (typeface != null) {
+                sTypefaces.put(font, typeface);
+            }
+            callbacks = sPendingCallbacks.get(font);
+            sPendingCallbacks.remove(font);
+            isIdle = sPendingCallbacks.size() == 0;
+        }
+        // Stop the loader thread once no font is being loaded
+        if (isIdle && sLoaderThread != null) {
+            sLoaderThread.quit();
+            sLoaderThread = null;
+            sLoaderHandler = null;
+        }
+        if (typeface != null && callbacks != null) {
+            for (Callback callback : callbacks) {
+                callback.onFontLoaded(font, typeface);
+            }
+        }
+    }
+
+    // endregion helper methods
+    //----------------------------------
+
+    /**
+     * Callback receiving loaded typeface
+     */
+    interface Callback {
+
+        void onFontLoaded(@FontRes int font, Typeface typeface);
+    }
+}
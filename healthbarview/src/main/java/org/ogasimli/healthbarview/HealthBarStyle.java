@@ -0,0 +1,510 @@
+/*
+ * Copyright (c) 2018 Orkhan Gasimli - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * This file is proprietary and confidential.
+ * Written by Orkhan Gasimli <orkhan.gasimli@gmail.com> in 2018.
+ */
+
+package org.ogasimli.healthbarview;
+
+import org.ogasimli.healthbarview.library.R;
+
+import android.content.Context;
+import android.content.res.ColorStateList;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.content.res.TypedArray;
+import android.support.annotation.Nullable;
+import android.util.AttributeSet;
+import android.util.Log;
+import android.util.TypedValue;
+
+import java.text.DecimalFormat;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable set of attributes of HealthBarView parsed from XML.
+ * Styles are cached per theme and configuration, and keyed by values of attributes resolved
+ * within the theme, so that inflating many views with the same attributes parses them only once,
+ * while change of configuration or of theme attributes parses them again.
+ *
+ * @author Orkhan Gasimli on 17.10.2026.
+ */
+final class HealthBarStyle {
+
+    //----------------------------------
+    // Static fields
+
+    private static final String LOG_TAG = HealthBarStyle.class.getSimpleName();
+
+    // Delimiter of labels and label ranges in XML
+    private static final String DELIMITER = Pattern.quote("|");
+
+    // Max number of styles cached per theme
+    private static final int MAX_STYLES_PER_THEME = 32;
+
+    // Styles keyed by theme and then by resolved values of attributes
+    private static final Map<Resources.Theme, ThemeStyles> sCache = new WeakHashMap<>();
+
+    // endregion static fields
+    //----------------------------------
+
+    //----------------------------------
+    // Member variables of the class
+
+    // Parsed values of attributes indexed by their styleable index, null if attribute isn't set
+    private final Object[] mValues;
+
+    // endregion member variables
+    //----------------------------------
+
+    //----------------------------------
+    // Constructors
+
+    private HealthBarStyle(Object[] values) {
+        mValues = values;
+    }
+
+    // endregion constructors
+    //----------------------------------
+
+    //----------------------------------
+    // Helper methods
+
+    /**
+     * Get the style of view with the given attributes, parsing them only if the same values of
+     * attributes weren't parsed before within the theme and configuration of context
+     *
+     * @param context      the context of view
+     * @param attrs        the attributes of view
+     * @param defStyleAttr the attribute of theme holding the default style
+     * @param defStyleRes  the default style used if defStyleAttr is 0 or not found in theme
+     */
+    static HealthBarStyle obtain(Context context, @Nullable AttributeSet attrs, int defStyleAttr,
+                                 int defStyleRes) {
+        Resources.Theme theme = context.getTheme();
+        Configuration configuration = context.getResources().getConfiguration();
+        // Attributes are resolved anyway, since the theme might have been modified by
+        // applyStyle, but parsed only if their values are new
+        TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.HealthBarView,
+                defStyleAttr, defStyleRes);
+        String key = createKey(a);
+        synchronized (sCache) {
+            ThemeStyles styles = sCache.get(theme);
+            HealthBarStyle style = styles != null ? styles.get(configuration, key) : null;
+            if (style != null) {
+                a.recycle();
+                return style;
+            }
+        }
+
+        HealthBarStyle style = parse(a);
+        synchronized (sCache) {
+            ThemeStyles styles = sCache.get(theme);
+            if (styles == null) {
+                styles = new ThemeStyles();
+                sCache.put(theme, styles);
+            }
+            styles.put(configuration, key, style);
+        }
+        return style;
+    }
+
+    /**
+     * Create key identifying the values of attributes resolved within the theme.
+     * Values which depend on configuration, like dimensions and color state lists, are
+     * identified by their resources, since configuration is a part of cache key as well.
+     *
+     * @param a the resolved attributes
+     */
+    private static String createKey(TypedArray a) {
+        StringBuilder key = new StringBuilder();
+        TypedValue value = new TypedValue();
+        for (int i = 0; i < a.getIndexCount(); i++) {
+            int index = a.getIndex(i);
+            if (a.getValue(index, value)) {
+                key.append(index).append('=').append(value.type).append(':').append(value.data)
+                        .append(':').append(value.resourceId);
+                if (value.string != null) {
+                    key.append(':').append(value.string);
+                }
+                key.append(';');
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Parse the attributes of view and recycle the typed array
+     *
+     * @param a the attributes to parse
+     */
+    private static HealthBarStyle parse(TypedArray a) {
+        Object[] values = new Object[R.styleable.HealthBarView.length];
+
+        /* -------------- MinValue attributes -------------- */
+
+        putFloat(a, values, R.styleable.HealthBarView_hbv_minValue);
+        putBoolean(a, values, R.styleable.HealthBarView_hbv_showMinValue);
+        putColorStateList(a, values, R.styleable.HealthBarView_hbv_minValueTextColor);
+        putDimension(a, values, R.styleable.HealthBarView_hbv_minValueTextSize);
+        putString(a, values, R.styleable.HealthBarView_hbv_minValueSuffix);
+        putResourceId(a, values, R.styleable.HealthBarView_hbv_minValueFont);
+        putDecimalFormat(a, values, R.styleable.HealthBarView_hbv_minValueDecimalFormat);
+
+        /* -------------- MaxValue attributes -------------- */
+
+        putFloat(a, values, R.styleable.HealthBarView_hbv_maxValue);
+        putBoolean(a, values, R.styleable.HealthBarView_hbv_showMaxValue);
+        putColorStateList(a, values, R.styleable.HealthBarView_hbv_maxValueTextColor);
+        putDimension(a, values, R.styleable.HealthBarView_hbv_maxValueTextSize);
+        putString(a, values, R.styleable.HealthBarView_hbv_maxValueSuffix);
+        putResourceId(a, values, R.styleable.HealthBarView_hbv_maxValueFont);
+        putDecimalFormat(a, values, R.styleable.HealthBarView_hbv_maxValueDecimalFormat);
+
+        /* -------------- Bar attributes -------------- */
+
+        putDimension(a, values, R.styleable.HealthBarView_hbv_strokeWidth);
+        putColorStateList(a, values, R.styleable.HealthBarView_hbv_strokeColor);
+        putColorStateList(a, values, R.styleable.HealthBarView_hbv_startColor);
+        putColorStateList(a, values, R.styleable.HealthBarView_hbv_endColor);
+
+        /* -------------- Indicator attributes -------------- */
+
+        putDimension(a, values, R.styleable.HealthBarView_hbv_indicatorWidth);
+        putColorStateList(a, values, R.styleable.HealthBarView_hbv_indicatorColor);
+        putDimension(a, values, R.styleable.HealthBarView_hbv_indicatorTopOverflow);
+        putDimension(a, values, R.styleable.HealthBarView_hbv_indicatorBottomOverflow);
+
+        /* -------------- Value attributes -------------- */
+
+        putBoolean(a, values, R.styleable.HealthBarView_hbv_showValue);
+        putColorStateList(a, values, R.styleable.HealthBarView_hbv_valueTextColor);
+        putDimension(a, values, R.styleable.HealthBarView_hbv_valueTextSize);
+        putBoolean(a, values, R.styleable.HealthBarView_hbv_animated);
+        putInt(a, values, R.styleable.HealthBarView_hbv_animationDuration);
+        putString(a, values, R.styleable.HealthBarView_hbv_valueSuffix);
+        putResourceId(a, values, R.styleable.HealthBarView_hbv_valueFont);
+        putDecimalFormat(a, values, R.styleable.HealthBarView_hbv_valueDecimalFormat);
+        putFloat(a, values, R.styleable.HealthBarView_hbv_value);
+
+        /* -------------- Label attributes -------------- */
+
+        putBoolean(a, values, R.styleable.HealthBarView_hbv_showLabel);
+        putColorStateList(a, values, R.styleable.HealthBarView_hbv_labelTextColor);
+        putDimension(a, values, R.styleable.HealthBarView_hbv_labelTextSize);
+        if (a.hasValue(R.styleable.HealthBarView_hbv_labels)) {
+            values[R.styleable.HealthBarView_hbv_labels] =
+                    a.getString(R.styleable.HealthBarView_hbv_labels).split(DELIMITER);
+        }
+        if (a.hasValue(R.styleable.HealthBarView_hbv_labelsRange)) {
+            String[] ranges = a.getString(R.styleable.HealthBarView_hbv_labelsRange)
+                    .split(DELIMITER);
+            double[] labelsRange = new double[ranges.length];
+            for (int i = 0; i < ranges.length; i++) {
+                labelsRange[i] = Double.parseDouble(ranges[i]);
+            }
+            values[R.styleable.HealthBarView_hbv_labelsRange] = labelsRange;
+        }
+        putResourceId(a, values, R.styleable.HealthBarView_hbv_labelFont);
+
+        /* -------------- Rendering and measure attributes -------------- */
+
+        putBoolean(a, values, R.styleable.HealthBarView_hbv_staticLayerEnabled);
+        putInt(a, values, R.styleable.HealthBarView_hbv_layerPolicy);
+        putBoolean(a, values, R.styleable.HealthBarView_hbv_stableMeasure);
+
+        /* -------------- Value update attributes -------------- */
+
+        putBoolean(a, values, R.styleable.HealthBarView_hbv_valueCoalesced);
+        putInt(a, values, R.styleable.HealthBarView_hbv_valueAggregation);
+
+        // Recycle
+        a.recycle();
+        return new HealthBarStyle(values);
+    }
+
+    private static void putFloat(TypedArray a, Object[] values, int index) {
+        if (a.hasValue(index)) values[index] = a.getFloat(index, 0);
+    }
+
+    private static void putBoolean(TypedArray a, Object[] values, int index) {
+        if (a.hasValue(index)) values[index] = a.getBoolean(index, false);
+    }
+
+    private static void putInt(TypedArray a, Object[] values, int index) {
+        if (a.hasValue(index)) values[index] = a.getInt(index, 0);
+    }
+
+    private static void putColorStateList(TypedArray a, Object[] values, int index) {
+        if (a.hasValue(index)) values[index] = a.getColorStateList(index);
+    }
+
+    private static void putDimension(TypedArray a, Object[] values, int index) {
+        if (a.hasValue(index)) values[index] = a.getDimensionPixelSize(index, 0);
+    }
+
+    private static void putString(TypedArray a, Object[] values, int index) {
+        if (a.hasValue(index)) values[index] = a.getString(index);
+    }
+
+    private static void putResourceId(TypedArray a, Object[] values, int index) {
+        if (a.hasValue(index)) values[index] = a.getResourceId(index, -1);
+    }
+
+    private static void putDecimalFormat(TypedArray a, Object[] values, int index) {
+        if (a.hasValue(index)) {
+            try {
+                values[index] = new DecimalFormat(a.getString(index));
+            } catch (Exception exception) {
+                Log.w(LOG_TAG, exception.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Apply the style to view within a single batch edit.
+     * Mutable values are copied, so that the view can't modify the cached style.
+     *
+     * @param view the view to apply style to
+     */
+    void apply(HealthBarView view) {
+        view.beginBatchEdit();
+
+        /* -------------- MinValue attributes -------------- */
+
+        if (has(R.styleable.HealthBarView_hbv_minValue)) {
+            view.setMinValue(getFloat(R.styleable.HealthBarView_hbv_minValue));
+        }
+        if (has(R.styleable.HealthBarView_hbv_showMinValue)) {
+            view.setShowMinValue(getBoolean(R.styleable.HealthBarView_hbv_showMinValue));
+        }
+        if (has(R.styleable.HealthBarView_hbv_minValueTextColor)) {
+            view.setMinValueTextColor(
+                    getColorStateList(R.styleable.HealthBarView_hbv_minValueTextColor));
+        }
+        if (has(R.styleable.HealthBarView_hbv_minValueTextSize)) {
+            view.setMinValueTextSize(getInt(R.styleable.HealthBarView_hbv_minValueTextSize));
+        }
+        if (has(R.styleable.HealthBarView_hbv_minValueSuffix)) {
+            view.setMinValueSuffix(getString(R.styleable.HealthBarView_hbv_minValueSuffix));
+        }
+        if (has(R.styleable.HealthBarView_hbv_minValueFont)) {
+            view.setMinValueFont(getInt(R.styleable.HealthBarView_hbv_minValueFont));
+        }
+        if (has(R.styleable.HealthBarView_hbv_minValueDecimalFormat)) {
+            view.setMinValueDecimalFormat(
+                    getDecimalFormat(R.styleable.HealthBarView_hbv_minValueDecimalFormat));
+        }
+
+        /* -------------- MaxValue attributes -------------- */
+
+        if (has(R.styleable.HealthBarView_hbv_maxValue)) {
+            view.setMaxValue(getFloat(R.styleable.HealthBarView_hbv_maxValue));
+        }
+        if (has(R.styleable.HealthBarView_hbv_showMaxValue)) {
+            view.setShowMaxValue(getBoolean(R.styleable.HealthBarView_hbv_showMaxValue));
+        }
+        if (has(R.styleable.HealthBarView_hbv_maxValueTextColor)) {
+            view.setMaxValueTextColor(
+                    getColorStateList(R.styleable.HealthBarView_hbv_maxValueTextColor));
+        }
+        if (has(R.styleable.HealthBarView_hbv_maxValueTextSize)) {
+            view.setMaxValueTextSize(getInt(R.styleable.HealthBarView_hbv_maxValueTextSize));
+        }
+        if (has(R.styleable.HealthBarView_hbv_maxValueSuffix)) {
+            view.setMaxValueSuffix(getString(R.styleable.HealthBarView_hbv_maxValueSuffix));
+        }
+        if (has(R.styleable.HealthBarView_hbv_maxValueFont)) {
+            view.setMaxValueFont(getInt(R.styleable.HealthBarView_hbv_maxValueFont));
+        }
+        if (has(R.styleable.HealthBarView_hbv_maxValueDecimalFormat)) {
+            view.setMaxValueDecimalFormat(
+                    getDecimalFormat(R.styleable.HealthBarView_hbv_maxValueDecimalFormat));
+        }
+
+        /* -------------- Bar attributes -------------- */
+
+        if (has(R.styleable.HealthBarView_hbv_strokeWidth)) {
+            view.setStrokeWidth(getInt(R.styleable.HealthBarView_hbv_strokeWidth));
+        }
+        if (has(R.styleable.HealthBarView_hbv_strokeColor)) {
+            view.setStrokeColor(getColorStateList(R.styleable.HealthBarView_hbv_strokeColor));
+        }
+        if (has(R.styleable.HealthBarView_hbv_startColor)) {
+            view.setStartColor(getColor(R.styleable.HealthBarView_hbv_startColor));
+        }
+        if (has(R.styleable.HealthBarView_hbv_endColor)) {
+            view.setEndColor(getColor(R.styleable.HealthBarView_hbv_endColor));
+        }
+
+        /* -------------- Indicator attributes -------------- */
+
+        if (has(R.styleable.HealthBarView_hbv_indicatorWidth)) {
+            view.setIndicatorWidth(getInt(R.styleable.HealthBarView_hbv_indicatorWidth));
+        }
+        if (has(R.styleable.HealthBarView_hbv_indicatorColor)) {
+            view.setIndicatorColor(getColorStateList(R.styleable.HealthBarView_hbv_indicatorColor));
+        }
+        if (has(R.styleable.HealthBarView_hbv_indicatorTopOverflow)) {
+            view.setIndicatorTopOverflow(
+                    getInt(R.styleable.HealthBarView_hbv_indicatorTopOverflow));
+        }
+        if (has(R.styleable.HealthBarView_hbv_indicatorBottomOverflow)) {
+            view.setIndicatorBottomOverflow(
+                    getInt(R.styleable.HealthBarView_hbv_indicatorBottomOverflow));
+        }
+
+        /* -------------- Value attributes -------------- */
+
+        if (has(R.styleable.HealthBarView_hbv_showValue)) {
+            view.setShowValue(getBoolean(R.styleable.HealthBarView_hbv_showValue));
+        }
+        if (has(R.styleable.HealthBarView_hbv_valueTextColor)) {
+            view.setValueTextColor(getColorStateList(R.styleable.HealthBarView_hbv_valueTextColor));
+        }
+        if (has(R.styleable.HealthBarView_hbv_valueTextSize)) {
+            view.setValueTextSize(getInt(R.styleable.HealthBarView_hbv_valueTextSize));
+        }
+        if (has(R.styleable.HealthBarView_hbv_animated)) {
+            view.setAnimated(getBoolean(R.styleable.HealthBarView_hbv_animated));
+        }
+        if (has(R.styleable.HealthBarView_hbv_animationDuration)) {
+            view.setAnimationDuration(getInt(R.styleable.HealthBarView_hbv_animationDuration));
+        }
+        if (has(R.styleable.HealthBarView_hbv_valueSuffix)) {
+            view.setValueSuffix(getString(R.styleable.HealthBarView_hbv_valueSuffix));
+        }
+        if (has(R.styleable.HealthBarView_hbv_valueFont)) {
+            view.setValueFont(getInt(R.styleable.HealthBarView_hbv_valueFont));
+        }
+        if (has(R.styleable.HealthBarView_hbv_valueDecimalFormat)) {
+            view.setValueDecimalFormat(
+                    getDecimalFormat(R.styleable.HealthBarView_hbv_valueDecimalFormat));
+        }
+        if (has(R.styleable.HealthBarView_hbv_value)) {
+            view.setValue(getFloat(R.styleable.HealthBarView_hbv_value));
+        }
+
+        /* -------------- Label attributes -------------- */
+
+        if (has(R.styleable.HealthBarView_hbv_showLabel)) {
+            view.setShowLabel(getBoolean(R.styleable.HealthBarView_hbv_showLabel));
+        }
+        if (has(R.styleable.HealthBarView_hbv_labelTextColor)) {
+            view.setLabelTextColor(getColorStateList(R.styleable.HealthBarView_hbv_labelTextColor));
+        }
+        if (has(R.styleable.HealthBarView_hbv_labelTextSize)) {
+            view.setLabelTextSize(getInt(R.styleable.HealthBarView_hbv_labelTextSize));
+        }
+        if (has(R.styleable.HealthBarView_hbv_labels)) {
+            String[] labels = (String[]) mValues[R.styleable.HealthBarView_hbv_labels];
+            view.setLabels(Arrays.copyOf(labels, labels.length));
+        }
+        if (has(R.styleable.HealthBarView_hbv_labelsRange)) {
+            double[] labelsRange = (double[]) mValues[R.styleable.HealthBarView_hbv_labelsRange];
+            view.setLabelsRange(Arrays.copyOf(labelsRange, labelsRange.length));
+        }
+        if (has(R.styleable.HealthBarView_hbv_labelFont)) {
+            view.setLabelFont(getInt(R.styleable.HealthBarView_hbv_labelFont));
+        }
+
+        /* -------------- Rendering and measure attributes -------------- */
+
+        if (has(R.styleable.HealthBarView_hbv_layerPolicy)) {
+            view.setLayerPolicy(getInt(R.styleable.HealthBarView_hbv_layerPolicy));
+        }
+        if (has(R.styleable.HealthBarView_hbv_staticLayerEnabled)) {
+            view.setStaticLayerEnabled(
+                    getBoolean(R.styleable.HealthBarView_hbv_staticLayerEnabled));
+        }
+        if (has(R.styleable.HealthBarView_hbv_stableMeasure)) {
+            view.setStableMeasure(getBoolean(R.styleable.HealthBarView_hbv_stableMeasure));
+        }
+
+        /* -------------- Value update attributes -------------- */
+
+        if (has(R.styleable.HealthBarView_hbv_valueCoalesced)) {
+            view.setValueCoalesced(getBoolean(R.styleable.HealthBarView_hbv_valueCoalesced));
+        }
+        if (has(R.styleable.HealthBarView_hbv_valueAggregation)) {
+            view.setValueAggregation(getInt(R.styleable.HealthBarView_hbv_valueAggregation));
+        }
+
+        view.endBatchEdit();
+    }
+
+    // endregion helper methods
+    //----------------------------------
+
+    //----------------------------------
+    // Setter & getters
+
+    boolean has(int index) {
+        return mValues[index] != null;
+    }
+
+    private float getFloat(int index) {
+        return (Float) mValues[index];
+    }
+
+    private boolean getBoolean(int index) {
+        return (Boolean) mValues[index];
+    }
+
+    int getInt(int index) {
+        return (Integer) mValues[index];
+    }
+
+    ColorStateList getColorStateList(int index) {
+        return (ColorStateList) mValues[index];
+    }
+
+    private int getColor(int index) {
+        return getColorStateList(index).getDefaultColor();
+    }
+
+    private String getString(int index) {
+        return (String) mValues[index];
+    }
+
+    private DecimalFormat getDecimalFormat(int index) {
+        return (DecimalFormat) ((DecimalFormat) mValues[index]).clone();
+    }
+
+    /**
+     * Styles parsed within a theme, which are valid only for the configuration they were
+     * parsed in. Least recently used styles are evicted.
+     */
+    private static final class ThemeStyles extends LinkedHashMap<String, HealthBarStyle> {
+
+        private final Configuration mConfiguration = new Configuration();
+
+        private ThemeStyles() {
+            super(16, 0.75f, true);
+        }
+
+        @Nullable
+        HealthBarStyle get(Configuration configuration, String key) {
+            return mConfiguration.equals(configuration) ? get(key) : null;
+        }
+
+        void put(Configuration configuration, String key, HealthBarStyle style) {
+            // Styles parsed in another configuration are outdated
+            if (!mConfiguration.equals(configuration)) {
+                clear();
+                mConfiguration.setTo(configuration);
+            }
+            put(key, style);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, HealthBarStyle> eldest) {
+            return size() > MAX_STYLES_PER_THEME;
+        }
+    }
+}
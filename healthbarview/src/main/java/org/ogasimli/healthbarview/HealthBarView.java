@@ -10,20 +10,35 @@ package org.ogasimli.healthbarview;
 
 import org.ogasimli.healthbarview.library.R;
 
+import android.animation.ValueAnimator;
 import android.content.Context;
-import android.content.res.TypedArray;
+import android.content.res.ColorStateList;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
+import android.graphics.Color;
 import android.graphics.Paint;
+import android.graphics.Rect;
 import android.graphics.RectF;
 import android.graphics.Typeface;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.AnyThread;
+import android.support.annotation.ColorInt;
+import android.support.annotation.ColorRes;
 import android.support.annotation.FontRes;
+import android.support.annotation.IntDef;
 import android.support.annotation.Nullable;
+import android.support.annotation.RequiresApi;
+import android.support.v4.view.ViewCompat;
 import android.util.AttributeSet;
-import android.util.Log;
 import android.view.View;
 
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
 import java.text.DecimalFormat;
-import java.util.regex.Pattern;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Custom health bar like view
@@ -35,6 +50,27 @@ public class HealthBarView extends View {
 
     private static final String LOG_TAG = HealthBarView.class.getSimpleName();
 
+    // Aggregations of values coalesced within a frame
+    public static final int AGGREGATION_LAST = 0;
+    public static final int AGGREGATION_MIN = 1;
+    public static final int AGGREGATION_MAX = 2;
+    public static final int AGGREGATION_MEAN = 3;
+
+    @IntDef({AGGREGATION_LAST, AGGREGATION_MIN, AGGREGATION_MAX, AGGREGATION_MEAN})
+    @Retention(RetentionPolicy.SOURCE)
+    public @interface ValueAggregation {
+    }
+
+    // Policies of using hardware layer
+    public static final int LAYER_POLICY_NONE = 0;
+    public static final int LAYER_POLICY_WHILE_ANIMATING = 1;
+    public static final int LAYER_POLICY_ALWAYS = 2;
+
+    @IntDef({LAYER_POLICY_NONE, LAYER_POLICY_WHILE_ANIMATING, LAYER_POLICY_ALWAYS})
+    @Retention(RetentionPolicy.SOURCE)
+    public @interface LayerPolicy {
+    }
+
     // Context
     private Context mContext;
 
@@ -50,11 +86,33 @@ public class HealthBarView extends View {
     // Minimal padding between bar and maxValue
     private static final int MAX_HORIZONTAL_PADDING = Util.dpToPx(2);
 
-    // MinValue field
-    private final MinValue mMinValue;
+    // Kinds of changes collected during batch edit
+    private static final int CHANGE_VALUE = 1;
+    private static final int CHANGE_PAINT = 1 << 1;
+    private static final int CHANGE_BOUNDS = 1 << 2;
+    private static final int CHANGE_LAYOUT = 1 << 3;
+
+    // Margin around indicator, value and label added to the invalidated region for antialiasing
+    private static final int DIRTY_BOUNDS_MARGIN = Util.dpToPx(1);
+
+    // Time the hardware layer is kept for after animation ends, so that values streamed every
+    // few frames don't create and destroy the layer between animations
+    private static final long LAYER_RELEASE_DELAY_MILLIS = 250;
 
-    // MaxValue field
-    private final MaxValue mMaxValue;
+    // Handler of the main thread, through which values set from background threads are posted
+    private static final Handler sMainHandler = new Handler(Looper.getMainLooper());
+
+    // MinValue field, created on first use, since minValue is hidden by default
+    private MinValue mMinValue;
+    private boolean mShowMinValue = MinValue.DEFAULT_VISIBILITY;
+
+    // MaxValue field, created on first use, since maxValue is hidden by default
+    private MaxValue mMaxValue;
+    private boolean mShowMaxValue = MaxValue.DEFAULT_VISIBILITY;
+
+    // Range of values, held by the view, since minValue and maxValue might be not created
+    private double mRangeMin = MinValue.DEFAULT_VALUE;
+    private double mRangeMax = MaxValue.DEFAULT_VALUE;
 
     // Bar
     // Stroke fields
@@ -68,14 +126,18 @@ public class HealthBarView extends View {
     // Value field
     private final Value mValue;
 
-    // Label fields
-    private final Label mLabel;
+    // Label fields, created on first use, unless label is hidden
+    private Label mLabel;
+    private boolean mShowLabel = Label.DEFAULT_VISIBILITY;
 
     // Rectangles
     private RectF mBarStrokeRec = new RectF();
     private RectF mBarFillRec = new RectF();
     private RectF mIndicatorRec = new RectF();
 
+    // Whether bounds of elements should be recalculated before the next draw
+    private boolean mLayoutDirty = true;
+
     // Dimensions and coordinates of elements
     // View
     private int mViewWidth;
@@ -87,6 +149,7 @@ public class HealthBarView extends View {
     private float mMinValueTop;
     private int mMinValueWidth;
     private int mMinValueHeight;
+    private String mMinValueText;
     // MaxValue
     private float mMaxValueLeft;
     private float mMaxValueRight;
@@ -94,6 +157,7 @@ public class HealthBarView extends View {
     private float mMaxValueTop;
     private int mMaxValueWidth;
     private int mMaxValueHeight;
+    private String mMaxValueText;
     // Bar
     // Stroke
     private int mBarStrokeLeft;
@@ -113,9 +177,75 @@ public class HealthBarView extends View {
     // Value
     private int mValueHeight;
     private int mValueWidth;
+    private float mValueX;
+    private float mValueY;
+    private int mValueTextLength;
     // Label
     private int mLabelHeight;
     private int mLabelWidth;
+    private float mLabelX;
+    private float mLabelY;
+
+    // Region covered by indicator, value and label, which change while value is animated
+    private final Rect mDynamicBounds = new Rect();
+    private final Rect mDirtyBounds = new Rect();
+
+    // When the view uses hardware layer
+    @LayerPolicy
+    private int mLayerPolicy = LAYER_POLICY_NONE;
+    private final Runnable mLayerReleaser = () -> setLayerType(View.LAYER_TYPE_NONE, null);
+
+    // Static layer holding minValue, maxValue and bar, which don't change during animation
+    private boolean mStaticLayerEnabled;
+    private boolean mStaticLayerDirty = true;
+    private Bitmap mStaticLayer;
+    private final Canvas mStaticLayerCanvas = new Canvas();
+
+    // Nesting depth of batch edits and changes to be applied once the outermost one ends
+    private int mBatchEditDepth;
+    private int mPendingChanges;
+
+    // Whether measured size ignores the current value and fits the widest text of value instead
+    private boolean mStableMeasure;
+
+    // Collector of values set while coalescing, created when coalescing is enabled
+    private boolean mValueCoalesced;
+    private ValueCoalescer mValueCoalescer;
+
+    // Whether view is attached to window
+    private boolean mIsAttached;
+
+    // Latest value set from background threads, as raw bits of double
+    private final AtomicLong mAsyncValue = new AtomicLong();
+    // Whether applying of the latest async value is posted to the next frame
+    private final AtomicBoolean mAsyncValueScheduled = new AtomicBoolean();
+    private final Runnable mAsyncValueApplier = () -> {
+        // Clear flag first, so that values published while applying get posted again
+        mAsyncValueScheduled.set(false);
+        setValue(Double.longBitsToDouble(mAsyncValue.get()));
+    };
+    private final Runnable mAsyncValuePoster = () -> {
+        // Actions posted to detached view are postponed until it gets attached, hence
+        // detached view applies the value after the duration of a frame instead
+        if (mIsAttached) {
+            ViewCompat.postOnAnimation(this, mAsyncValueApplier);
+        } else {
+            sMainHandler.postDelayed(mAsyncValueApplier, ValueAnimator.getFrameDelay());
+        }
+    };
+
+    // Source the view is bound to, listened to while the view is attached to window
+    private ValueSource mValueSource;
+    private final ValueSource.Listener mValueSourceListener = this::setValueAsync;
+
+    // Whether view is visible along with all its ancestors, animations pause while it is not
+    private boolean mIsVisibleAggregated = true;
+    private boolean mIsAnimationPaused;
+
+    // Measure specs of the last measure pass
+    private boolean mIsMeasured;
+    private int mWidthMeasureSpec;
+    private int mHeightMeasureSpec;
 
     /**
      * The constructor for the HealthBarView
@@ -123,43 +253,62 @@ public class HealthBarView extends View {
      * @param context The context.
      */
     public HealthBarView(Context context) {
-        super(context);
+        this(context, null);
+    }
+
+    /**
+     * The constructor for the HealthBarView
+     *
+     * @param context The context.
+     * @param attrs   The attributes.
+     */
+    public HealthBarView(Context context, @Nullable AttributeSet attrs) {
+        this(context, attrs, R.attr.healthBarViewStyle);
+    }
+
+    /**
+     * The constructor for the HealthBarView
+     *
+     * @param context      The context.
+     * @param attrs        The attributes.
+     * @param defStyleAttr The attribute of theme holding the default style.
+     */
+    public HealthBarView(Context context, @Nullable AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
         mContext = context;
 
-        // Init elements
-        mMinValue = new MinValue(this, context);
-        mMaxValue = new MaxValue(this, context);
+        // Init elements, while minValue, maxValue and label are created on first use
         mStroke = new Stroke(this, context);
         mFill = new Fill(this, context);
         mIndicator = new Indicator(this, context);
         mValue = new Value(this, context);
-        mLabel = new Label(this, context);
 
         // Init view
-        init(context, null);
+        init(context, attrs, defStyleAttr, 0);
     }
 
     /**
      * The constructor for the HealthBarView
      *
-     * @param context The context.
-     * @param attrs   The attributes.
+     * @param context      The context.
+     * @param attrs        The attributes.
+     * @param defStyleAttr The attribute of theme holding the default style.
+     * @param defStyleRes  The default style used if defStyleAttr is 0 or not set in theme.
      */
-    public HealthBarView(Context context, @Nullable AttributeSet attrs) {
-        super(context, attrs);
+    @RequiresApi(Build.VERSION_CODES.LOLLIPOP)
+    public HealthBarView(Context context, @Nullable AttributeSet attrs, int defStyleAttr,
+                         int defStyleRes) {
+        super(context, attrs, defStyleAttr, defStyleRes);
         mContext = context;
 
-        // Init elements
-        mMinValue = new MinValue(this, context);
-        mMaxValue = new MaxValue(this, context);
+        // Init elements, while minValue, maxValue and label are created on first use
         mStroke = new Stroke(this, context);
         mFill = new Fill(this, context);
         mIndicator = new Indicator(this, context);
         mValue = new Value(this, context);
-        mLabel = new Label(this, context);
 
         // Init view
-        init(context, attrs);
+        init(context, attrs, defStyleAttr, defStyleRes);
     }
 
     /**
@@ -173,361 +322,384 @@ public class HealthBarView extends View {
         super.onSizeChanged(w, h, oldw, oldh);
         mViewWidth = w;
         mViewHeight = h;
+        mLayoutDirty = true;
     }
 
+    /**
+     * Mark bounds as outdated, so that they are recalculated once before the next draw.
+     * During batch edit layout request is postponed till the end of edit.
+     */
     @Override
-    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
-        setMeasuredDimension(measureWidth(widthMeasureSpec), measureHeight(heightMeasureSpec));
+    public void requestLayout() {
+        mLayoutDirty = true;
+        if (mBatchEditDepth > 0) {
+            mPendingChanges |= CHANGE_LAYOUT;
+            return;
+        }
+        super.requestLayout();
     }
 
+    /**
+     * Elements call this method whenever their configuration changes only the appearance.
+     * During batch edit invalidation is postponed till the end of edit.
+     */
     @Override
-    protected void onDraw(Canvas canvas) {
-        drawMinValue(canvas);
-        drawMaxValue(canvas);
-        drawBarStroke(canvas);
-        drawBarFill(canvas);
-        drawIndicator(canvas);
-        drawValue(canvas);
-        drawLabel(canvas);
+    public void invalidate() {
+        if (mBatchEditDepth > 0) {
+            mPendingChanges |= CHANGE_PAINT;
+            return;
+        }
+        super.invalidate();
     }
 
-    //----------------------------------
-    // region helper
-
     /**
-     * The method to initialize view
-     *
-     * @param context The context.
-     * @param attrs   The attributes.
+     * Elements call this method whenever their configuration affects the bounds of the elements.
+     * Layout is requested only if the view would measure to a different size, since otherwise
+     * it's enough to recalculate bounds of elements before the next draw.
      */
-    private void init(Context context, @Nullable AttributeSet attrs) {
-        if (!isInEditMode()) {
-            setLayerType(View.LAYER_TYPE_HARDWARE, null);
+    void requestRelayout() {
+        mLayoutDirty = true;
+        if (mBatchEditDepth > 0) {
+            mPendingChanges |= CHANGE_BOUNDS;
+            return;
         }
-
-        if (attrs != null) {
-            parseAttributes(context.obtainStyledAttributes(attrs, R.styleable.HealthBarView));
+        if (isMeasuredSizeStable()) {
+            invalidate();
+        } else {
+            requestLayout();
         }
     }
 
     /**
-     * Parse the attributes passed to the view from the XML
-     *
-     * @param a the attributes to parse
+     * Determine whether measuring the view with the last measure specs would give its current
+     * measured size
      */
-    private void parseAttributes(TypedArray a) {
-
-        /* -------------- MinValue attributes -------------- */
-
-        if (a.hasValue(R.styleable.HealthBarView_hbv_minValue)) {
-            setMinValue(a.getFloat(R.styleable.HealthBarView_hbv_minValue, MinValue.DEFAULT_VALUE));
-        }
-
-        if (a.hasValue(R.styleable.HealthBarView_hbv_showMinValue)) {
-            setShowMinValue(a.getBoolean(R.styleable.HealthBarView_hbv_showMinValue,
-                    MinValue.DEFAULT_VISIBILITY));
-        }
-
-        if (a.hasValue(R.styleable.HealthBarView_hbv_minValueTextColor)) {
-            setMinValueTextColor(a.getInt(R.styleable.HealthBarView_hbv_minValueTextColor,
-                    MinValue.DEFAULT_TEXT_COLOR));
-        }
-
-        if (a.hasValue(R.styleable.HealthBarView_hbv_minValueTextSize)) {
-            setMinValueTextSize(a.getDimensionPixelSize(R.styleable
-                            .HealthBarView_hbv_minValueTextSize,
-                    MinValue.DEFAULT_TEXT_SIZE));
-        }
-
-        if (a.hasValue(R.styleable.HealthBarView_hbv_minValueSuffix)) {
-            setMinValueSuffix(a.getString(R.styleable.HealthBarView_hbv_minValueSuffix));
+    private boolean isMeasuredSizeStable() {
+        if (!mIsMeasured || isLayoutRequested()) {
+            return false;
         }
+        return measureWidth(mWidthMeasureSpec) == getMeasuredWidthAndState()
+                && measureHeight(mHeightMeasureSpec) == getMeasuredHeightAndState();
+    }
 
-        if (a.hasValue(R.styleable.HealthBarView_hbv_minValueFont)) {
-            setMinValueFont(a.getResourceId(R.styleable.HealthBarView_hbv_minValueFont, -1));
-        }
-
-        if (a.hasValue(R.styleable.HealthBarView_hbv_minValueDecimalFormat)) {
-            try {
-                String pattern = a.getString(R.styleable.HealthBarView_hbv_minValueDecimalFormat);
-                setMinValueDecimalFormat(new DecimalFormat(pattern));
-            } catch (Exception exception) {
-                Log.w(LOG_TAG, exception.getMessage());
-            }
-        }
-
-        /* -------------- End of minValue attributes -------------- */
-
-        /* -------------- MaxValue attributes -------------- */
-
-        if (a.hasValue(R.styleable.HealthBarView_hbv_maxValue)) {
-            setMaxValue(a.getFloat(R.styleable.HealthBarView_hbv_maxValue, MaxValue.DEFAULT_VALUE));
-        }
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        mIsAttached = true;
+        if (mValueSource != null) mValueSource.addListener(mValueSourceListener);
+        updateAnimationPaused();
+    }
 
-        if (a.hasValue(R.styleable.HealthBarView_hbv_showMaxValue)) {
-            setShowMaxValue(a.getBoolean(R.styleable.HealthBarView_hbv_showMaxValue,
-                    MaxValue.DEFAULT_VISIBILITY));
-        }
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        mIsAttached = false;
+        if (mValueSource != null) mValueSource.removeListener(mValueSourceListener);
+        updateAnimationPaused();
+        releaseStaticLayer();
+    }
 
-        if (a.hasValue(R.styleable.HealthBarView_hbv_maxValueTextColor)) {
-            setMaxValueTextColor(a.getInt(R.styleable.HealthBarView_hbv_maxValueTextColor,
-                    MaxValue.DEFAULT_TEXT_COLOR));
-        }
+    @Override
+    public void onVisibilityAggregated(boolean isVisible) {
+        super.onVisibilityAggregated(isVisible);
+        mIsVisibleAggregated = isVisible;
+        updateAnimationPaused();
+    }
 
-        if (a.hasValue(R.styleable.HealthBarView_hbv_maxValueTextSize)) {
-            setMaxValueTextSize(a.getDimensionPixelSize(R.styleable
-                            .HealthBarView_hbv_maxValueTextSize,
-                    MaxValue.DEFAULT_TEXT_SIZE));
+    @Override
+    protected void onVisibilityChanged(View changedView, int visibility) {
+        super.onVisibilityChanged(changedView, visibility);
+        // onVisibilityAggregated is called since Nougat only
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.N) {
+            mIsVisibleAggregated = isShown();
+            updateAnimationPaused();
         }
+    }
 
-        if (a.hasValue(R.styleable.HealthBarView_hbv_maxValueSuffix)) {
-            setMaxValueSuffix(a.getString(R.styleable.HealthBarView_hbv_maxValueSuffix));
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.N) {
+            mIsVisibleAggregated = visibility == VISIBLE && isShown();
+            updateAnimationPaused();
         }
+    }
 
-        if (a.hasValue(R.styleable.HealthBarView_hbv_maxValueFont)) {
-            setMaxValueFont(a.getResourceId(R.styleable.HealthBarView_hbv_maxValueFont, -1));
-        }
+    /**
+     * Value calls this method whenever its animation starts or stops receiving frames
+     */
+    void onAnimationStateChanged() {
+        updateLayerType();
+    }
 
-        if (a.hasValue(R.styleable.HealthBarView_hbv_maxValueDecimalFormat)) {
-            try {
-                String pattern = a.getString(R.styleable.HealthBarView_hbv_maxValueDecimalFormat);
-                setMaxValueDecimalFormat(new DecimalFormat(pattern));
-            } catch (Exception exception) {
-                Log.w(LOG_TAG, exception.getMessage());
+    /**
+     * Use hardware layer as required by the layer policy. Layer type isn't changed under
+     * {@link #LAYER_POLICY_NONE} policy, so that it can be set directly. Once animation ends,
+     * the layer is released after a delay, unless the view is no longer displayed.
+     */
+    private void updateLayerType() {
+        if (mLayerPolicy == LAYER_POLICY_NONE || isInEditMode()) return;
+        removeCallbacks(mLayerReleaser);
+        if (mLayerPolicy == LAYER_POLICY_ALWAYS || mValue.isAnimationRunning()) {
+            if (getLayerType() != View.LAYER_TYPE_HARDWARE) {
+                setLayerType(View.LAYER_TYPE_HARDWARE, null);
+            }
+        } else if (getLayerType() != View.LAYER_TYPE_NONE) {
+            if (mIsAnimationPaused) {
+                mLayerReleaser.run();
+            } else {
+                postDelayed(mLayerReleaser, LAYER_RELEASE_DELAY_MILLIS);
             }
         }
+    }
 
-        /* -------------- End of maxValue attributes -------------- */
-
-        /* -------------- Bar stroke attributes -------------- */
-
-        if (a.hasValue(R.styleable.HealthBarView_hbv_strokeWidth)) {
-            setStrokeWidth(a.getDimensionPixelSize(R.styleable.HealthBarView_hbv_strokeWidth,
-                    Stroke.DEFAULT_WIDTH));
-        }
-
-        if (a.hasValue(R.styleable.HealthBarView_hbv_strokeColor)) {
-            setStrokeColor(a.getInt(R.styleable.HealthBarView_hbv_strokeColor,
-                    Stroke.DEFAULT_COLOR));
-        }
-
-        /* -------------- End of bar stroke attributes -------------- */
-
-        /* -------------- Bar fill attributes -------------- */
-
-        if (a.hasValue(R.styleable.HealthBarView_hbv_startColor)) {
-            setStartColor(a.getInt(R.styleable.HealthBarView_hbv_startColor,
-                    Fill.DEFAULT_START_COLOR));
-        }
-
-        if (a.hasValue(R.styleable.HealthBarView_hbv_endColor)) {
-            setEndColor(a.getInt(R.styleable.HealthBarView_hbv_endColor, Fill.DEFAULT_END_COLOR));
-        }
-
-        /* -------------- End of bar fill attributes -------------- */
-
-        /* -------------- Indicator attributes -------------- */
-
-        if (a.hasValue(R.styleable.HealthBarView_hbv_indicatorWidth)) {
-            setIndicatorWidth(a.getDimensionPixelSize(R.styleable.HealthBarView_hbv_indicatorWidth,
-                    Indicator.DEFAULT_WIDTH));
-        }
-
-        if (a.hasValue(R.styleable.HealthBarView_hbv_indicatorColor)) {
-            setIndicatorColor(a.getInt(R.styleable.HealthBarView_hbv_indicatorColor,
-                    Indicator.DEFAULT_COLOR));
-        }
-
-        if (a.hasValue(R.styleable.HealthBarView_hbv_indicatorTopOverflow)) {
-            setIndicatorTopOverflow(a.getDimensionPixelSize
-                    (R.styleable.HealthBarView_hbv_indicatorTopOverflow,
-                            Indicator.DEFAULT_TOP_OVERFLOW));
-        }
-
-        if (a.hasValue(R.styleable.HealthBarView_hbv_indicatorBottomOverflow)) {
-            setIndicatorBottomOverflow(a.getDimensionPixelSize
-                    (R.styleable.HealthBarView_hbv_indicatorBottomOverflow,
-                            Indicator.DEFAULT_BOTTOM_OVERFLOW));
-        }
-
-        /* -------------- End of indicator attributes -------------- */
-
-        /* -------------- Value attributes -------------- */
+    /**
+     * Pause animations and coalescing of values while the view is detached or invisible,
+     * so that views not displayed don't receive frame callbacks
+     */
+    private void updateAnimationPaused() {
+        boolean paused = !mIsAttached || !mIsVisibleAggregated;
+        if (mIsAnimationPaused == paused) return;
+        mIsAnimationPaused = paused;
+        mValue.setAnimationPaused(paused);
+        if (mValueCoalescer != null) mValueCoalescer.setPaused(paused);
+        // Release the layer kept after animation ended, as the view is no longer displayed
+        updateLayerType();
+    }
 
-        if (a.hasValue(R.styleable.HealthBarView_hbv_showValue)) {
-            setShowValue(a.getBoolean(R.styleable.HealthBarView_hbv_showValue,
-                    Value.DEFAULT_VISIBILITY));
-        }
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        mIsMeasured = true;
+        mWidthMeasureSpec = widthMeasureSpec;
+        mHeightMeasureSpec = heightMeasureSpec;
+        setMeasuredDimension(measureWidth(widthMeasureSpec), measureHeight(heightMeasureSpec));
+    }
 
-        if (a.hasValue(R.styleable.HealthBarView_hbv_valueTextColor)) {
-            setValueTextColor(a.getInt(R.styleable.HealthBarView_hbv_valueTextColor,
-                    Value.DEFAULT_TEXT_COLOR));
+    @Override
+    protected void drawableStateChanged() {
+        super.drawableStateChanged();
+        int[] state = getDrawableState();
+        boolean staticChanged = mMinValue != null && mMinValue.updateColorState(state);
+        staticChanged |= mMaxValue != null && mMaxValue.updateColorState(state);
+        staticChanged |= mStroke.updateColorState(state);
+        boolean dynamicChanged = mIndicator.updateColorState(state);
+        dynamicChanged |= mValue.updateColorState(state);
+        dynamicChanged |= mLabel != null && mLabel.updateColorState(state);
+        if (staticChanged) {
+            invalidateStaticLayer();
+        } else if (dynamicChanged) {
+            invalidate();
         }
+    }
 
-        if (a.hasValue(R.styleable.HealthBarView_hbv_valueTextSize)) {
-            setValueTextSize(a.getDimensionPixelSize(R.styleable.HealthBarView_hbv_valueTextSize,
-                    Value.DEFAULT_TEXT_SIZE));
+    @Override
+    protected void onDraw(Canvas canvas) {
+        if (mLayoutDirty) {
+            computeLayout();
+            mStaticLayerDirty = true;
         }
-
-        if (a.hasValue(R.styleable.HealthBarView_hbv_animated)) {
-            setAnimated(a.getBoolean(R.styleable.HealthBarView_hbv_animated,
-                    Value.DEFAULT_ANIMATION));
+        if (mStaticLayerEnabled && updateStaticLayer()) {
+            canvas.drawBitmap(mStaticLayer, 0, 0, null);
+        } else {
+            drawStaticElements(canvas);
         }
+        layoutDynamicElements();
+        drawIndicator(canvas);
+        drawValue(canvas);
+        drawLabel(canvas);
+    }
 
-        if (a.hasValue(R.styleable.HealthBarView_hbv_animationDuration)) {
-            setAnimationDuration(a.getInt(R.styleable.HealthBarView_hbv_animationDuration,
-                    (int) Value.DEFAULT_ANIMATION_DURATION));
-        }
+    /**
+     * Start batch edit. Layout requests and invalidations caused by setters are postponed till
+     * the matching call of {@link #endBatchEdit()}, and then at most one layout and
+     * one invalidation are issued. Batch edits may be nested.
+     */
+    public void beginBatchEdit() {
+        mBatchEditDepth++;
+    }
 
-        if (a.hasValue(R.styleable.HealthBarView_hbv_valueSuffix)) {
-            setValueSuffix(a.getString(R.styleable.HealthBarView_hbv_valueSuffix));
+    /**
+     * End batch edit started by {@link #beginBatchEdit()}. Once the outermost batch edit ends,
+     * requests layout if any change affected bounds of elements and size of the view,
+     * and otherwise invalidates either the whole view or only the region of value.
+     */
+    public void endBatchEdit() {
+        if (mBatchEditDepth == 0 || --mBatchEditDepth > 0) {
+            return;
         }
-
-        if (a.hasValue(R.styleable.HealthBarView_hbv_valueFont)) {
-            setValueFont(a.getResourceId(R.styleable.HealthBarView_hbv_valueFont, -1));
+        int changes = mPendingChanges;
+        mPendingChanges = 0;
+        if ((changes & CHANGE_LAYOUT) != 0) {
+            requestLayout();
+            invalidate();
+        } else if ((changes & CHANGE_BOUNDS) != 0) {
+            requestRelayout();
+            invalidate();
+        } else if ((changes & CHANGE_PAINT) != 0) {
+            invalidate();
+        } else if ((changes & CHANGE_VALUE) != 0) {
+            invalidateValue();
         }
+    }
 
-        if (a.hasValue(R.styleable.HealthBarView_hbv_valueDecimalFormat)) {
-            try {
-                String pattern = a.getString(R.styleable.HealthBarView_hbv_valueDecimalFormat);
-                setValueDecimalFormat(new DecimalFormat(pattern));
-            } catch (Exception exception) {
-                Log.w(LOG_TAG, exception.getMessage());
-            }
+    /**
+     * Apply changes made by setters within a single batch edit
+     *
+     * @param changes the runnable calling setters of the view
+     */
+    public void edit(Runnable changes) {
+        beginBatchEdit();
+        try {
+            changes.run();
+        } finally {
+            endBatchEdit();
         }
+    }
 
-        if (a.hasValue(R.styleable.HealthBarView_hbv_value)) {
-            setValue(a.getFloat(R.styleable.HealthBarView_hbv_value, Value.DEFAULT_VALUE));
-        }
+    public boolean isInBatchEdit() {
+        return mBatchEditDepth > 0;
+    }
 
-        /* -------------- End of value attributes -------------- */
+    //----------------------------------
+    // region helper
 
-        /* -------------- Label attributes -------------- */
+    /**
+     * The method to initialize view
+     *
+     * @param context      The context.
+     * @param attrs        The attributes.
+     * @param defStyleAttr The attribute of theme holding the default style.
+     * @param defStyleRes  The default style.
+     */
+    private void init(Context context, @Nullable AttributeSet attrs, int defStyleAttr,
+                      int defStyleRes) {
+        // Animations stay paused until the view is attached to window
+        updateAnimationPaused();
 
-        if (a.hasValue(R.styleable.HealthBarView_hbv_showLabel)) {
-            setShowLabel(a.getBoolean(R.styleable.HealthBarView_hbv_showLabel,
-                    Label.DEFAULT_VISIBILITY));
-        }
+        // Attributes are parsed once per theme and attribute set, and reused by other views
+        HealthBarStyle.obtain(context, attrs, defStyleAttr, defStyleRes).apply(this);
+    }
 
-        if (a.hasValue(R.styleable.HealthBarView_hbv_labelTextColor)) {
-            setLabelTextColor(a.getInt(R.styleable.HealthBarView_hbv_labelTextColor,
-                    Label.DEFAULT_TEXT_COLOR));
+    /**
+     * Get minValue element, creating it on first use
+     */
+    private MinValue minValue() {
+        if (mMinValue == null) {
+            mMinValue = new MinValue(this, mContext, mRangeMin);
         }
+        return mMinValue;
+    }
 
-        if (a.hasValue(R.styleable.HealthBarView_hbv_labelTextSize)) {
-            setLabelTextSize(a.getDimensionPixelSize(R.styleable.HealthBarView_hbv_labelTextSize,
-                    Label.DEFAULT_TEXT_SIZE));
+    /**
+     * Get maxValue element, creating it on first use
+     */
+    private MaxValue maxValue() {
+        if (mMaxValue == null) {
+            mMaxValue = new MaxValue(this, mContext, mRangeMax);
         }
+        return mMaxValue;
+    }
 
-        if (a.hasValue(R.styleable.HealthBarView_hbv_labels)) {
-            setLabels(a.getString(R.styleable.HealthBarView_hbv_labels), Pattern.quote("|"));
+    /**
+     * Get label element, creating it on first use
+     */
+    private Label label() {
+        if (mLabel == null) {
+            mLabel = new Label(this, mContext);
         }
+        return mLabel;
+    }
 
-        if (a.hasValue(R.styleable.HealthBarView_hbv_labelsRange)) {
-            setLabelsRange(a.getString(R.styleable.HealthBarView_hbv_labelsRange),
-                    Pattern.quote("|"));
-        }
+    /**
+     * Determine bounds of the elements which don't depend on the value being drawn.
+     * Called from onDraw only if size of the view or configuration of the elements has changed
+     * since the last pass, so that drawing frames of animation doesn't recompute them.
+     */
+    private void computeLayout() {
+        // Determine height of value and label, since bar is placed between them
+        determineValueHeight(isShowValue());
+        determineLabelHeight(isShowLabel());
 
-        if (a.hasValue(R.styleable.HealthBarView_hbv_labelFont)) {
-            setLabelFont(a.getResourceId(R.styleable.HealthBarView_hbv_labelFont, -1));
-        }
+        layoutBarStrokeVerticalBounds();
+        layoutMinValue();
+        layoutMaxValue();
+        layoutBarStrokeHorizontalBounds();
+        layoutBarFill();
+        layoutIndicator();
 
-        /* -------------- End of label attributes -------------- */
+        mLayoutDirty = false;
+    }
 
-        // Recycle
-        a.recycle();
+    /**
+     * Determine top and bottom bounds of bar stroke
+     * P.S. Consider that stroke will be drawn center.
+     */
+    private void layoutBarStrokeVerticalBounds() {
+        mBarStrokeTop = paddingTop() + mIndicator.getTopOverflow() + mValueHeight
+                + mStroke.getWidth() / 2;
+        mBarStrokeBottom = mViewHeight - paddingBottom() - mIndicator.getBottomOverflow() -
+                mLabelHeight - mStroke.getWidth() / 2;
     }
 
     /**
-     * Determine bounds and draw minValue
-     *
-     * @param canvas the canvas object
+     * Determine text and bounds of minValue
      */
-    private void drawMinValue(Canvas canvas) {
+    private void layoutMinValue() {
         if (isShowMinValue()) {
+            mMinValueText = minValue().getTextToDraw();
             // Determine width and height of value text
-            determineMinValueWidth(mMinValue.getTextToDraw(), mMinValue.getPaint(), isShowValue());
-            determineMinValueHeight(mMinValue.getPaint(), isShowValue());
+            determineMinValueWidth(mMinValueText, isShowValue());
+            determineMinValueHeight(isShowValue());
             // Determine x and y coordinates for value
             mMinValueLeft = getPaddingLeft();
             mMinValueRight = mMinValueLeft + mMinValueWidth;
-            mMinValueBottom = (float) ((mViewHeight - paddingBottom() -
-                    mIndicator.getBottomOverflow() - mLabelHeight - mStroke.getWidth() / 2) -
-                    (((mViewHeight - paddingBottom() - mIndicator.getBottomOverflow() -
-                            mLabelHeight - mStroke.getWidth() / 2) - (paddingTop() +
-                            mIndicator.getTopOverflow() + mValueHeight +
-                            mStroke.getWidth() / 2)) / 2) + (mMinValueHeight / 2.5));
+            mMinValueBottom = (float) (mBarStrokeBottom - (mBarStrokeBottom - mBarStrokeTop) / 2
+                    + (mMinValueHeight / 2.5));
             mMinValueTop = mMinValueBottom - mMinValueHeight;
-
-            // Draw
-            canvas.drawText(mMinValue.getTextToDraw(), mMinValueLeft, mMinValueBottom,
-                    mMinValue.getPaint());
         }
     }
 
     /**
-     * Determine bounds and draw maxValue
-     *
-     * @param canvas the canvas object
+     * Determine text and bounds of maxValue
      */
-    private void drawMaxValue(Canvas canvas) {
+    private void layoutMaxValue() {
         if (isShowMaxValue()) {
+            mMaxValueText = maxValue().getTextToDraw();
             // Determine width and height of value text
-            determineMaxValueWidth(mMaxValue.getTextToDraw(), mMaxValue.getPaint(), isShowValue());
-            determineMaxValueHeight(mMaxValue.getPaint(), isShowValue());
+            determineMaxValueWidth(mMaxValueText, isShowValue());
+            determineMaxValueHeight(isShowValue());
             // Determine x and y coordinates for value
             mMaxValueLeft = mViewWidth - getPaddingRight() - mMaxValueWidth;
             mMaxValueRight = mMaxValueLeft + mMaxValueWidth;
-            mMaxValueBottom = (float) ((mViewHeight - paddingBottom() -
-                    mIndicator.getBottomOverflow() - mLabelHeight - mStroke.getWidth() / 2) -
-                    (((mViewHeight - paddingBottom() - mIndicator.getBottomOverflow() -
-                            mLabelHeight - mStroke.getWidth() / 2) - (paddingTop() +
-                            mIndicator.getTopOverflow() + mValueHeight +
-                            mStroke.getWidth() / 2)) / 2) + (mMinValueHeight / 2.5));
+            mMaxValueBottom = (float) (mBarStrokeBottom - (mBarStrokeBottom - mBarStrokeTop) / 2
+                    + (mMaxValueHeight / 2.5));
             mMaxValueTop = mMaxValueBottom - mMaxValueHeight;
-
-            // Draw
-            canvas.drawText(mMaxValue.getTextToDraw(), mMaxValueLeft, mMaxValueBottom,
-                    mMaxValue.getPaint());
         }
     }
 
     /**
-     * Determine bounds and draw bar stroke
+     * Determine left and right bounds of bar stroke
      * P.S. Consider that stroke will be drawn center.
-     *
-     * @param canvas the canvas object
      */
-    private void drawBarStroke(Canvas canvas) {
-        // Setup RectF for BarStroke
+    private void layoutBarStrokeHorizontalBounds() {
         if (isShowMinValue()) {
             mBarStrokeLeft = (int) (mMinValueRight + mStroke.getWidth() / 2 + MIN_HORIZONTAL_PADDING);
         } else {
             mBarStrokeLeft = getPaddingLeft() + mStroke.getWidth() / 2;
         }
-        mBarStrokeTop = paddingTop() + mIndicator.getTopOverflow() + mValueHeight
-                + mStroke.getWidth() / 2;
         if (isShowMaxValue()) {
             mBarStrokeRight = (int) (mMaxValueLeft - mStroke.getWidth() / 2 - MAX_HORIZONTAL_PADDING);
         } else {
             mBarStrokeRight = mViewWidth - getPaddingRight() - mStroke.getWidth() / 2;
         }
-        mBarStrokeBottom = mViewHeight - paddingBottom() - mIndicator.getBottomOverflow() -
-                mLabelHeight - mStroke.getWidth() / 2;
         assignRectBounds(mBarStrokeRec, mBarStrokeLeft, mBarStrokeTop, mBarStrokeRight,
                 mBarStrokeBottom);
-
-        // Draw
-        canvas.drawRect(mBarStrokeRec, mStroke.getPaint());
     }
 
     /**
-     * Determine bounds and draw bar fill
-     *
-     * @param canvas the canvas object
+     * Determine bounds and shader of bar fill
      */
-    private void drawBarFill(Canvas canvas) {
-        // Setup RectF for BarFill
+    private void layoutBarFill() {
         mBarFillLeft = mBarStrokeLeft + mStroke.getWidth();
         mBarFillTop = mBarStrokeTop + mStroke.getWidth();
         mBarFillRight = mBarStrokeRight - mStroke.getWidth();
@@ -535,75 +707,256 @@ public class HealthBarView extends View {
         assignRectBounds(mBarFillRec, mBarFillLeft, mBarFillTop, mBarFillRight,
                 mBarFillBottom);
         mFill.setPainShader(mBarFillLeft, mBarFillTop, mBarFillRight, mBarFillBottom);
+    }
 
-        // Draw
-        canvas.drawRect(mBarFillRec, mFill.getPaint());
+    /**
+     * Determine vertical bounds of indicator.
+     * Horizontal bounds depend on the value and are determined while drawing.
+     */
+    private void layoutIndicator() {
+        mIndicatorTop = mBarStrokeTop - mIndicator.getTopOverflow() - mStroke.getWidth() / 2;
+        mIndicatorBottom = mBarStrokeBottom + mIndicator.getBottomOverflow() + mStroke.getWidth() / 2;
     }
 
     /**
-     * Determine bounds and draw indicator
+     * Draw elements which don't depend on the value being drawn
      *
      * @param canvas the canvas object
      */
-    private void drawIndicator(Canvas canvas) {
+    private void drawStaticElements(Canvas canvas) {
+        drawMinValue(canvas);
+        drawMaxValue(canvas);
+        drawBarStroke(canvas);
+        drawBarFill(canvas);
+    }
+
+    /**
+     * Render static elements into static layer, if they have changed since the last draw
+     *
+     * @return true if static layer is ready to be drawn, false if view has no size yet
+     */
+    private boolean updateStaticLayer() {
+        if (mViewWidth <= 0 || mViewHeight <= 0) {
+            return false;
+        }
+        if (mStaticLayer == null || mStaticLayer.getWidth() != mViewWidth
+                || mStaticLayer.getHeight() != mViewHeight) {
+            releaseStaticLayer();
+            mStaticLayer = Bitmap.createBitmap(mViewWidth, mViewHeight, Bitmap.Config.ARGB_8888);
+            mStaticLayerCanvas.setBitmap(mStaticLayer);
+        } else if (mStaticLayerDirty) {
+            mStaticLayer.eraseColor(Color.TRANSPARENT);
+        } else {
+            return true;
+        }
+        drawStaticElements(mStaticLayerCanvas);
+        mStaticLayerDirty = false;
+        return true;
+    }
+
+    /**
+     * Release bitmap of static layer. It is recreated on next draw if static layer is enabled.
+     */
+    private void releaseStaticLayer() {
+        if (mStaticLayer != null) {
+            mStaticLayerCanvas.setBitmap(null);
+            mStaticLayer.recycle();
+            mStaticLayer = null;
+        }
+        mStaticLayerDirty = true;
+    }
+
+    /**
+     * Mark static layer as outdated after the change of appearance of static elements
+     */
+    private void invalidateStaticLayer() {
+        mStaticLayerDirty = true;
+        invalidate();
+    }
+
+    /**
+     * Draw minValue
+     *
+     * @param canvas the canvas object
+     */
+    private void drawMinValue(Canvas canvas) {
+        if (isShowMinValue()) {
+            canvas.drawText(mMinValueText, mMinValueLeft, mMinValueBottom, minValue().getPaint());
+        }
+    }
+
+    /**
+     * Draw maxValue
+     *
+     * @param canvas the canvas object
+     */
+    private void drawMaxValue(Canvas canvas) {
+        if (isShowMaxValue()) {
+            canvas.drawText(mMaxValueText, mMaxValueLeft, mMaxValueBottom, maxValue().getPaint());
+        }
+    }
+
+    /**
+     * Draw bar stroke
+     *
+     * @param canvas the canvas object
+     */
+    private void drawBarStroke(Canvas canvas) {
+        canvas.drawRect(mBarStrokeRec, mStroke.getPaint());
+    }
+
+    /**
+     * Draw bar fill
+     *
+     * @param canvas the canvas object
+     */
+    private void drawBarFill(Canvas canvas) {
+        canvas.drawRect(mBarFillRec, mFill.getPaint());
+    }
+
+    /**
+     * Determine position of indicator, value and label for the current value to draw,
+     * along with the region covered by them
+     */
+    private void layoutDynamicElements() {
+        layoutIndicatorHorizontalBounds();
+        // Indicator is stroked with its width, hence half of it is drawn outside its bounds
+        int indicatorMargin = (mIndicator.getWidth() + 1) / 2 + DIRTY_BOUNDS_MARGIN;
+        mDynamicBounds.set(mIndicatorLeft - indicatorMargin,
+                mIndicatorTop - indicatorMargin,
+                mIndicatorRight + indicatorMargin,
+                mIndicatorBottom + indicatorMargin);
+        if (isShowValue()) {
+            layoutValue();
+            unionTextBounds(mValueX, mValueY, mValueWidth, mValueHeight,
+                    mValue.getTextMetrics().getFontMetrics());
+        }
+        if (isShowLabel()) {
+            layoutLabel();
+            unionTextBounds(mLabelX, mLabelY, mLabelWidth, mLabelHeight,
+                    label().getTextMetrics().getFontMetrics());
+        }
+    }
+
+    /**
+     * Determine horizontal bounds of indicator
+     */
+    private void layoutIndicatorHorizontalBounds() {
         // Setup RectF for Indicator
-        mIndicatorLeft = (int) (mBarFillLeft + (mValue.getValueToDraw() - mMinValue.getValue())
-                * ((mBarFillRight - mBarFillLeft) / (mMaxValue.getValue() - mMinValue.getValue())));
-        mIndicatorTop = mBarStrokeTop - mIndicator.getTopOverflow() - mStroke.getWidth() / 2;
+        mIndicatorLeft = (int) (mBarFillLeft + (mValue.getValueToDraw() - mRangeMin)
+                * ((mBarFillRight - mBarFillLeft) / (mRangeMax - mRangeMin)));
         mIndicatorRight = mIndicatorLeft + mIndicator.getWidth();
-        mIndicatorBottom = mBarStrokeBottom + mIndicator.getBottomOverflow() + mStroke.getWidth() / 2;
         assignRectBounds(mIndicatorRec, mIndicatorLeft, mIndicatorTop, mIndicatorRight,
                 mIndicatorBottom);
+    }
 
-        // Draw
+    /**
+     * Determine position of value
+     */
+    private void layoutValue() {
+        // Prepare text of value and determine its width
+        mValueTextLength = mValue.formatTextToDraw();
+        determineValueWidth(isShowValue());
+        // Determine x and y coordinates for value
+        mValueX = (mIndicatorRight + mIndicatorLeft) / 2 - mValueWidth / 2;
+        mValueX = Math.max(mValueX, mBarStrokeLeft);
+        if (mValueX + mValueWidth > mBarStrokeRight) {
+            mValueX = mValueX - (mValueX + mValueWidth - mBarStrokeRight);
+        }
+        mValueY = mIndicatorTop - 10;
+    }
+
+    /**
+     * Determine position of label
+     */
+    private void layoutLabel() {
+        label().setLabelToDraw(mValue.getValueToDraw(), mRangeMin,
+                mRangeMax);
+        // Determine width of text
+        determineLabelWidth(label().getLabelToDraw(), isShowLabel());
+        // Determine x and y coordinates for label
+        mLabelX = (mIndicatorRight + mIndicatorLeft) / 2 - mLabelWidth / 2;
+        mLabelX = Math.max(mLabelX, mBarStrokeLeft);
+        if (mLabelX + mLabelWidth > mBarStrokeRight) {
+            mLabelX = mLabelX - (mLabelX + mLabelWidth - mBarStrokeRight);
+        }
+        mLabelY = mIndicatorBottom + mLabelHeight - 5;
+    }
+
+    /**
+     * Extend dynamic bounds with the bounds of text drawn at the given baseline position.
+     * Horizontal bounds are extended by half of text height to cover glyph overhangs.
+     *
+     * @param x           the x coordinate of text start
+     * @param y           the y coordinate of text baseline
+     * @param width       the width of text
+     * @param height      the height of text
+     * @param fontMetrics the metrics of font used to draw text
+     */
+    private void unionTextBounds(float x, float y, int width, int height,
+                                 Paint.FontMetrics fontMetrics) {
+        mDynamicBounds.union((int) (x - height / 2) - DIRTY_BOUNDS_MARGIN,
+                (int) (y + fontMetrics.top) - DIRTY_BOUNDS_MARGIN,
+                (int) (x + width + height / 2) + DIRTY_BOUNDS_MARGIN,
+                (int) (y + fontMetrics.bottom) + DIRTY_BOUNDS_MARGIN);
+    }
+
+    /**
+     * Invalidate only the region of indicator, value and label after change of value to draw.
+     * Invalidation is skipped if neither position of indicator nor displayed texts changed.
+     */
+    void invalidateValue() {
+        if (mBatchEditDepth > 0) {
+            mPendingChanges |= CHANGE_VALUE;
+            return;
+        }
+        if (mLayoutDirty) {
+            invalidate();
+            return;
+        }
+        int indicatorLeft = mIndicatorLeft;
+        int textVersion = mValue.getTextVersion();
+        String label = mLabel != null ? mLabel.getLabelToDraw() : null;
+        mDirtyBounds.set(mDynamicBounds);
+
+        layoutDynamicElements();
+        if (indicatorLeft == mIndicatorLeft && textVersion == mValue.getTextVersion()
+                && (mLabel == null || label == mLabel.getLabelToDraw())) {
+            return;
+        }
+        mDirtyBounds.union(mDynamicBounds);
+        invalidate(mDirtyBounds.left, mDirtyBounds.top, mDirtyBounds.right, mDirtyBounds.bottom);
+    }
+
+    /**
+     * Draw indicator
+     *
+     * @param canvas the canvas object
+     */
+    private void drawIndicator(Canvas canvas) {
         canvas.drawRect(mIndicatorRec, mIndicator.getPaint());
     }
 
     /**
-     * Determine bounds and draw value
+     * Draw value
      *
      * @param canvas the canvas object
      */
     private void drawValue(Canvas canvas) {
         if (isShowValue()) {
-            // Determine width and height of value text
-            determineValueWidth(mValue.getTextToDraw(), mValue.getPaint(), isShowValue());
-            determineValueHeight(mValue.getPaint(), isShowValue());
-            // Determine x and y coordinates for value
-            float valueX = (mIndicatorRight + mIndicatorLeft) / 2 - mValueWidth / 2;
-            valueX = Math.max(valueX, mBarStrokeLeft);
-            if (valueX + mValueWidth > mBarStrokeRight) {
-                valueX = valueX - (valueX + mValueWidth - mBarStrokeRight);
-            }
-            float valueY = mIndicatorTop - 10;
-
-            // Draw
-            canvas.drawText(mValue.getTextToDraw(), valueX, valueY, mValue.getPaint());
+            canvas.drawText(mValue.getTextBuffer(), mValue.getTextStart(), mValueTextLength,
+                    mValueX, mValueY, mValue.getPaint());
         }
     }
 
     /**
-     * Determine bounds and draw label
+     * Draw label
      *
      * @param canvas the canvas object
      */
     private void drawLabel(Canvas canvas) {
         if (isShowLabel()) {
-            mLabel.setLabelToDraw(mValue.getValueToDraw(), mMinValue.getValue(),
-                    mMaxValue.getValue());
-            // Determine width and height of text
-            determineLabelWidth(mLabel.getLabelToDraw(), mLabel.getPaint(), isShowLabel());
-            determineLabelHeight(mLabel.getPaint(), isShowLabel());
-            // Determine x and y coordinates for label
-            float labelX = (mIndicatorRight + mIndicatorLeft) / 2 - mLabelWidth / 2;
-            labelX = Math.max(labelX, mBarStrokeLeft);
-            if (labelX + mLabelWidth > mBarStrokeRight) {
-                labelX = labelX - (labelX + mLabelWidth - mBarStrokeRight);
-            }
-            float labelY = mIndicatorBottom + mLabelHeight - 5;
-
-            // Draw
-            canvas.drawText(mLabel.getLabelToDraw(), labelX, labelY, mLabel.getPaint());
+            canvas.drawText(label().getLabelToDraw(), mLabelX, mLabelY, label().getPaint());
         }
     }
 
@@ -663,36 +1016,28 @@ public class HealthBarView extends View {
             // Sum up extra space between stroke and fill
             desiredWidth += mStroke.getWidth();
 
-            // Determine width of minValue text
-            determineMinValueWidth(mMinValue.getTextToDraw(), mMinValue.getPaint(), isShowValue());
-            // Sum up minValue width
-            desiredWidth += mMinValueWidth;
-            // Add additional padding if minValue is visible
-            if (isShowMinValue()) desiredWidth += MIN_HORIZONTAL_PADDING;
-
-            // Determine width of maxValue text
-            determineMaxValueWidth(mMaxValue.getTextToDraw(), mMaxValue.getPaint(), isShowValue());
-            // Sum up maxValue width
-            desiredWidth += mMaxValueWidth;
-            // Add additional padding if maxValue is visible
-            if (isShowMaxValue()) desiredWidth += MAX_HORIZONTAL_PADDING;
-
-            // Determine width of value text
-            determineValueWidth(mValue.getTextToDraw(), mValue.getPaint(), isShowValue());
-
-            // Set label to be drawn
-            mLabel.setLabelToDraw(mValue.getValueToDraw(), mMinValue.getValue(),
-                    mMaxValue.getValue());
-            // Determine width of label
-            int maxLength = 0;
-            String longestLabel = null;
-            for (String label : mLabel.getLabels()) {
-                if (label.length() > maxLength) {
-                    maxLength = label.length();
-                    longestLabel = label;
-                }
+            // Sum up width of minValue text and additional padding, if minValue is visible
+            if (isShowMinValue()) {
+                determineMinValueWidth(minValue().getTextToDraw(), isShowValue());
+                desiredWidth += mMinValueWidth + MIN_HORIZONTAL_PADDING;
+            }
+
+            // Sum up width of maxValue text and additional padding, if maxValue is visible
+            if (isShowMaxValue()) {
+                determineMaxValueWidth(maxValue().getTextToDraw(), isShowValue());
+                desiredWidth += mMaxValueWidth + MAX_HORIZONTAL_PADDING;
+            }
+
+            // Determine width of value, or of the widest text of value in stable measure mode
+            if (mStableMeasure) {
+                mValueWidth = isShowValue() ? mValue.getMaxTextWidth() : 0;
+            } else {
+                mValue.formatTextToDraw();
+                determineValueWidth(isShowValue());
             }
-            determineLabelWidth(longestLabel, mLabel.getPaint(), isShowLabel());
+
+            // Determine width of the widest label
+            mLabelWidth = isShowLabel() ? label().getMaxTextWidth() : 0;
 
             // Width of the view should be equal at least to the largest of below components
             desiredWidth = Math.max(desiredWidth, Math.max(mLabelWidth, mValueWidth));
@@ -704,29 +1049,29 @@ public class HealthBarView extends View {
     /**
      * Calculate width of the minValue
      */
-    private void determineMinValueWidth(String text, Paint paint, boolean isVisible) {
-        mMinValueWidth = Util.determineTextWidth(text, paint, isVisible);
+    private void determineMinValueWidth(String text, boolean isVisible) {
+        mMinValueWidth = isVisible ? minValue().getTextMetrics().getTextWidth(text) : 0;
     }
 
     /**
      * Calculate width of the maxValue
      */
-    private void determineMaxValueWidth(String text, Paint paint, boolean isVisible) {
-        mMaxValueWidth = Util.determineTextWidth(text, paint, isVisible);
+    private void determineMaxValueWidth(String text, boolean isVisible) {
+        mMaxValueWidth = isVisible ? maxValue().getTextMetrics().getTextWidth(text) : 0;
     }
 
     /**
      * Calculate width of the value
      */
-    private void determineValueWidth(String text, Paint paint, boolean isVisible) {
-        mValueWidth = Util.determineTextWidth(text, paint, isVisible);
+    private void determineValueWidth(boolean isVisible) {
+        mValueWidth = isVisible ? mValue.getTextWidth() : 0;
     }
 
     /**
      * Calculate width of the label
      */
-    private void determineLabelWidth(String text, Paint paint, boolean isVisible) {
-        mLabelWidth = Util.determineTextWidth(text, paint, isVisible);
+    private void determineLabelWidth(String text, boolean isVisible) {
+        mLabelWidth = isVisible ? label().getTextMetrics().getTextWidth(text) : 0;
     }
 
     /**
@@ -755,22 +1100,20 @@ public class HealthBarView extends View {
             desiredHeight += mStroke.getWidth();
 
             // Determine and sum up height of value
-            determineValueHeight(mValue.getPaint(), isShowValue());
+            determineValueHeight(isShowValue());
             desiredHeight += mValueHeight;
 
             // Determine and sum up height of label
-            determineLabelHeight(mLabel.getPaint(), isShowLabel());
+            determineLabelHeight(isShowLabel());
             desiredHeight += mLabelHeight;
 
             // Sum up the length of indicator that will overflow from top and bottom of the bar
             desiredHeight += mIndicator.getTopOverflow(); // additional height for indicator
             desiredHeight += mIndicator.getBottomOverflow(); // additional height for indicator
 
-            // Determine and sum up height of minValue
-            determineMinValueHeight(mMinValue.getPaint(), isShowValue());
-
-            // Determine and sum up height of minValue
-            determineMaxValueHeight(mMaxValue.getPaint(), isShowValue());
+            // Determine height of minValue and maxValue, if they are visible
+            determineMinValueHeight(isShowMinValue() && isShowValue());
+            determineMaxValueHeight(isShowMaxValue() && isShowValue());
 
             // Width of the view should be equal at least to the largest of below components
             desiredHeight = Math.max(desiredHeight, Math.max(mMinValueHeight, mMaxValueHeight));
@@ -782,29 +1125,29 @@ public class HealthBarView extends View {
     /**
      * Calculate height of the minValue
      */
-    private void determineMinValueHeight(Paint paint, boolean isVisible) {
-        mMinValueHeight = Util.determineTextHeight(paint, isVisible);
+    private void determineMinValueHeight(boolean isVisible) {
+        mMinValueHeight = isVisible ? minValue().getTextMetrics().getTextHeight() : 0;
     }
 
     /**
      * Calculate height of the maxValue
      */
-    private void determineMaxValueHeight(Paint paint, boolean isVisible) {
-        mMaxValueHeight = Util.determineTextHeight(paint, isVisible);
+    private void determineMaxValueHeight(boolean isVisible) {
+        mMaxValueHeight = isVisible ? maxValue().getTextMetrics().getTextHeight() : 0;
     }
 
     /**
      * Calculate height of the value
      */
-    private void determineValueHeight(Paint paint, boolean isVisible) {
-        mValueHeight = Util.determineTextHeight(paint, isVisible);
+    private void determineValueHeight(boolean isVisible) {
+        mValueHeight = isVisible ? mValue.getTextMetrics().getTextHeight() : 0;
     }
 
     /**
      * Calculate height of the label
      */
-    private void determineLabelHeight(Paint paint, boolean isVisible) {
-        mLabelHeight = Util.determineTextHeight(paint, isVisible);
+    private void determineLabelHeight(boolean isVisible) {
+        mLabelHeight = isVisible ? label().getTextMetrics().getTextHeight() : 0;
     }
 
     //endregion helper
@@ -816,68 +1159,89 @@ public class HealthBarView extends View {
     /* -------------- MinValue attributes -------------- */
 
     public double getMinValue() {
-        return mMinValue.getValue();
+        return mRangeMin;
     }
 
     public void setMinValue(float minValue) {
-        mMinValue.setValue(minValue);
+        mRangeMin = minValue;
+        // Range of value determines measured size, hence it's updated before relayout
+        mValue.setRange(minValue, mRangeMax);
+        if (mMinValue != null) {
+            mMinValue.setValue(minValue);
+        } else {
+            requestRelayout();
+        }
         mValue.setValue(minValue);
     }
 
     public boolean isShowMinValue() {
-        return mMinValue.isVisible();
+        return mShowMinValue;
     }
 
     public void setShowMinValue(boolean showMinValue) {
-        mMinValue.setVisible(showMinValue);
+        if (mShowMinValue != showMinValue) {
+            mShowMinValue = showMinValue;
+            requestRelayout();
+        }
     }
 
     public int getMinValueTextColor() {
-        return mMinValue.getTextColor();
+        return minValue().getTextColor();
+    }
+
+    public void setMinValueTextColor(@ColorInt int minValueTextColor) {
+        minValue().setTextColor(minValueTextColor);
+        invalidateStaticLayer();
+    }
+
+    public void setMinValueTextColor(ColorStateList minValueTextColors) {
+        minValue().setTextColor(minValueTextColors);
+        invalidateStaticLayer();
     }
 
-    public void setMinValueTextColor(int minValueTextColor) {
-        mMinValue.setTextColor(minValueTextColor);
+    public void setMinValueTextColorResource(@ColorRes int minValueTextColor) {
+        minValue().setTextColorResource(minValueTextColor);
+        invalidateStaticLayer();
     }
 
     public int getMinValueTextSize() {
-        return mMinValue.getTextSize();
+        return minValue().getTextSize();
     }
 
-    private void setMinValueTextSize(int minValueTextSize) {
-        mMinValue.setTextSize(minValueTextSize);
+    void setMinValueTextSize(int minValueTextSize) {
+        minValue().setTextSize(minValueTextSize);
     }
 
     public void setMinValueTextSize(float minValueTextSize) {
-        mMinValue.setTextSize(minValueTextSize);
+        minValue().setTextSize(minValueTextSize);
     }
 
     public String getMinValueSuffix() {
-        return mMinValue.getSuffix();
+        return minValue().getSuffix();
     }
 
     public void setMinValueSuffix(String minValueSuffix) {
-        mMinValue.setSuffix(minValueSuffix);
+        minValue().setSuffix(minValueSuffix);
     }
 
     public Typeface getMinValueFont() {
-        return mMinValue.getFont();
+        return minValue().getFont();
     }
 
     public void setMinValueFont(Typeface minValueFont) {
-        mMinValue.setFont(minValueFont);
+        minValue().setFont(minValueFont);
     }
 
     public void setMinValueFont(@FontRes int minValueFont) {
-        mMinValue.setFont(minValueFont);
+        minValue().setFont(minValueFont);
     }
 
     public DecimalFormat getMinValueDecimalFormat() {
-        return mMinValue.getDecimalFormat();
+        return minValue().getDecimalFormat();
     }
 
     public void setMinValueDecimalFormat(DecimalFormat minValueDecimalFormat) {
-        mMinValue.setDecimalFormat(minValueDecimalFormat);
+        minValue().setDecimalFormat(minValueDecimalFormat);
     }
 
     /* -------------- End of minValue attributes -------------- */
@@ -885,68 +1249,89 @@ public class HealthBarView extends View {
     /* -------------- MaxValue attributes -------------- */
 
     public double getMaxValue() {
-        return mMaxValue.getValue();
+        return mRangeMax;
     }
 
     public void setMaxValue(float maxValue) {
-        mMaxValue.setValue(maxValue);
+        mRangeMax = maxValue;
+        // Range of value determines measured size, hence it's updated before relayout
+        mValue.setRange(mRangeMin, maxValue);
+        if (mMaxValue != null) {
+            mMaxValue.setValue(maxValue);
+        } else {
+            requestRelayout();
+        }
     }
 
 
     public boolean isShowMaxValue() {
-        return mMaxValue.isVisible();
+        return mShowMaxValue;
     }
 
     public void setShowMaxValue(boolean showMaxValue) {
-        mMaxValue.setVisible(showMaxValue);
+        if (mShowMaxValue != showMaxValue) {
+            mShowMaxValue = showMaxValue;
+            requestRelayout();
+        }
     }
 
     public int getMaxValueTextColor() {
-        return mMaxValue.getTextColor();
+        return maxValue().getTextColor();
+    }
+
+    public void setMaxValueTextColor(@ColorInt int maxValueTextColor) {
+        maxValue().setTextColor(maxValueTextColor);
+        invalidateStaticLayer();
+    }
+
+    public void setMaxValueTextColor(ColorStateList maxValueTextColors) {
+        maxValue().setTextColor(maxValueTextColors);
+        invalidateStaticLayer();
     }
 
-    public void setMaxValueTextColor(int maxValueTextColor) {
-        mMaxValue.setTextColor(maxValueTextColor);
+    public void setMaxValueTextColorResource(@ColorRes int maxValueTextColor) {
+        maxValue().setTextColorResource(maxValueTextColor);
+        invalidateStaticLayer();
     }
 
     public int getMaxValueTextSize() {
-        return mMaxValue.getTextSize();
+        return maxValue().getTextSize();
     }
 
-    private void setMaxValueTextSize(int maxValueTextSize) {
-        mMaxValue.setTextSize(maxValueTextSize);
+    void setMaxValueTextSize(int maxValueTextSize) {
+        maxValue().setTextSize(maxValueTextSize);
     }
 
     public void setMaxValueTextSize(float maxValueTextSize) {
-        mMaxValue.setTextSize(maxValueTextSize);
+        maxValue().setTextSize(maxValueTextSize);
     }
 
     public String getMaxValueSuffix() {
-        return mMaxValue.getSuffix();
+        return maxValue().getSuffix();
     }
 
     public void setMaxValueSuffix(String maxValueSuffix) {
-        mMaxValue.setSuffix(maxValueSuffix);
+        maxValue().setSuffix(maxValueSuffix);
     }
 
     public Typeface getMaxValueFont() {
-        return mMaxValue.getFont();
+        return maxValue().getFont();
     }
 
     public void setMaxValueFont(Typeface maxValueFont) {
-        mMaxValue.setFont(maxValueFont);
+        maxValue().setFont(maxValueFont);
     }
 
     public void setMaxValueFont(@FontRes int maxValueFont) {
-        mMaxValue.setFont(maxValueFont);
+        maxValue().setFont(maxValueFont);
     }
 
     public DecimalFormat getMaxValueDecimalFormat() {
-        return mMaxValue.getDecimalFormat();
+        return maxValue().getDecimalFormat();
     }
 
     public void setMaxValueDecimalFormat(DecimalFormat maxValueDecimalFormat) {
-        mMaxValue.setDecimalFormat(maxValueDecimalFormat);
+        maxValue().setDecimalFormat(maxValueDecimalFormat);
     }
 
     /* -------------- End of maxValue attributes -------------- */
@@ -957,7 +1342,7 @@ public class HealthBarView extends View {
         return mStroke.getWidth();
     }
 
-    private void setStrokeWidth(int strokeWidth) {
+    void setStrokeWidth(int strokeWidth) {
         mStroke.setWidth(strokeWidth);
     }
 
@@ -969,8 +1354,19 @@ public class HealthBarView extends View {
         return mStroke.getColor();
     }
 
-    public void setStrokeColor(int strokeColor) {
+    public void setStrokeColor(@ColorInt int strokeColor) {
         mStroke.setColor(strokeColor);
+        invalidateStaticLayer();
+    }
+
+    public void setStrokeColor(ColorStateList strokeColors) {
+        mStroke.setColor(strokeColors);
+        invalidateStaticLayer();
+    }
+
+    public void setStrokeColorResource(@ColorRes int strokeColor) {
+        mStroke.setColorResource(strokeColor);
+        invalidateStaticLayer();
     }
 
     /* -------------- End of bar stroke attributes -------------- */
@@ -981,16 +1377,54 @@ public class HealthBarView extends View {
         return mFill.getStartColor();
     }
 
-    public void setStartColor(int startColor) {
+    public void setStartColor(@ColorInt int startColor) {
         mFill.setStartColor(startColor);
+        invalidateStaticLayer();
+    }
+
+    public void setStartColorResource(@ColorRes int startColor) {
+        mFill.setStartColorResource(startColor);
+        invalidateStaticLayer();
     }
 
     public int getEndColor() {
         return mFill.getEndColor();
     }
 
-    public void setEndColor(int endColor) {
+    public void setEndColor(@ColorInt int endColor) {
         mFill.setEndColor(endColor);
+        invalidateStaticLayer();
+    }
+
+    public void setEndColorResource(@ColorRes int endColor) {
+        mFill.setEndColorResource(endColor);
+        invalidateStaticLayer();
+    }
+
+    public int[] getGradientColors() {
+        return mFill.getColors();
+    }
+
+    public float[] getGradientPositions() {
+        return mFill.getPositions();
+    }
+
+    public void setGradientColors(@ColorInt int[] colors) {
+        setGradientColors(colors, null);
+    }
+
+    public void setGradientColors(@ColorInt int[] colors, float[] positions) {
+        mFill.setColors(colors, positions);
+        invalidateStaticLayer();
+    }
+
+    public void setGradientColorResources(@ColorRes int[] colors) {
+        setGradientColorResources(colors, null);
+    }
+
+    public void setGradientColorResources(@ColorRes int[] colors, float[] positions) {
+        mFill.setColorResources(colors, positions);
+        invalidateStaticLayer();
     }
 
     /* -------------- End of bar fill attributes -------------- */
@@ -1001,7 +1435,7 @@ public class HealthBarView extends View {
         return mIndicator.getWidth();
     }
 
-    private void setIndicatorWidth(int indicatorWidth) {
+    void setIndicatorWidth(int indicatorWidth) {
         mIndicator.setWidth(indicatorWidth);
     }
 
@@ -1013,10 +1447,18 @@ public class HealthBarView extends View {
         return mIndicator.getColor();
     }
 
-    public void setIndicatorColor(int indicatorColor) {
+    public void setIndicatorColor(@ColorInt int indicatorColor) {
         mIndicator.setColor(indicatorColor);
     }
 
+    public void setIndicatorColor(ColorStateList indicatorColors) {
+        mIndicator.setColor(indicatorColors);
+    }
+
+    public void setIndicatorColorResource(@ColorRes int indicatorColor) {
+        mIndicator.setColorResource(indicatorColor);
+    }
+
     public int getIndicatorTopOverflow() {
         return mIndicator.getTopOverflow();
     }
@@ -1045,12 +1487,76 @@ public class HealthBarView extends View {
 
     /* -------------- Value attributes -------------- */
 
+    /**
+     * Get the value. While value updates are coalesced, values set since the last frame
+     * are not applied yet.
+     */
     public double getValue() {
         return mValue.getValue();
     }
 
     public void setValue(double value) {
-        mValue.setValue(value, mMinValue.getValue(), mMaxValue.getValue());
+        if (mValueCoalesced) {
+            mValueCoalescer.add(value);
+        } else {
+            applyValue(value);
+        }
+    }
+
+    /**
+     * Set value from any thread. Only the latest value is kept, and it is applied on the next
+     * frame on the main thread. Doesn't allocate or lock, and posts at most one update per frame,
+     * no matter how many threads set values.
+     *
+     * @param value the value
+     */
+    @AnyThread
+    public void setValueAsync(double value) {
+        mAsyncValue.set(Double.doubleToRawLongBits(value));
+        if (mAsyncValueScheduled.compareAndSet(false, true)) {
+            // Post through the main thread, since actions posted to detached view from
+            // background thread are never run before Nougat
+            sMainHandler.post(mAsyncValuePoster);
+        }
+    }
+
+    /**
+     * Bind the view to the source of values, replacing the source bound before.
+     * The view listens to the source only while it is attached to window, so that detached
+     * views don't leak. Values are conflated as with {@link #setValueAsync(double)}, so only
+     * the latest value of each frame is displayed.
+     *
+     * @param valueSource the source of values, or null to unbind
+     */
+    public void bind(@Nullable ValueSource valueSource) {
+        if (mValueSource == valueSource) return;
+        if (mValueSource != null && mIsAttached) {
+            mValueSource.removeListener(mValueSourceListener);
+        }
+        mValueSource = valueSource;
+        if (valueSource != null && mIsAttached) {
+            valueSource.addListener(mValueSourceListener);
+        }
+    }
+
+    public void unbind() {
+        bind(null);
+    }
+
+    /**
+     * Apply value to the value element, bypassing coalescing
+     *
+     * @param value the value
+     */
+    void applyValue(double value) {
+        mValue.setValue(value, mRangeMin, mRangeMax);
+    }
+
+    /**
+     * Element holding the value and its animation, for tests driving frames of animation
+     */
+    Value getValueElement() {
+        return mValue;
     }
 
     public boolean isShowValue() {
@@ -1065,15 +1571,23 @@ public class HealthBarView extends View {
         return mValue.getTextColor();
     }
 
-    public void setValueTextColor(int valueTextColor) {
+    public void setValueTextColor(@ColorInt int valueTextColor) {
         mValue.setTextColor(valueTextColor);
     }
 
+    public void setValueTextColor(ColorStateList valueTextColors) {
+        mValue.setTextColor(valueTextColors);
+    }
+
+    public void setValueTextColorResource(@ColorRes int valueTextColor) {
+        mValue.setTextColorResource(valueTextColor);
+    }
+
     public int getValueTextSize() {
         return mValue.getTextSize();
     }
 
-    private void setValueTextSize(int valueTextSize) {
+    void setValueTextSize(int valueTextSize) {
         mValue.setTextSize(valueTextSize);
     }
 
@@ -1109,6 +1623,20 @@ public class HealthBarView extends View {
         mValue.setDecimalFormat(valueDecimalFormat);
     }
 
+    public int getValueTextCacheSize() {
+        return mValue.getTextTableSize();
+    }
+
+    /**
+     * Set max number of value texts which are formatted and measured in advance.
+     * If range and decimal format give more displayable values, texts are formatted while drawing.
+     *
+     * @param valueTextCacheSize the max number of texts, 0 to disable
+     */
+    public void setValueTextCacheSize(int valueTextCacheSize) {
+        mValue.setTextTableSize(valueTextCacheSize);
+    }
+
     public boolean isAnimated() {
         return mValue.isAnimated();
     }
@@ -1130,79 +1658,206 @@ public class HealthBarView extends View {
     /* -------------- Label attributes -------------- */
 
     public boolean isShowLabel() {
-        return mLabel.isVisible();
+        return mShowLabel;
     }
 
     public void setShowLabel(boolean showLabel) {
-        mLabel.setVisible(showLabel);
+        if (mShowLabel != showLabel) {
+            mShowLabel = showLabel;
+            requestRelayout();
+        }
     }
 
     public int getLabelTextColor() {
-        return mLabel.getTextColor();
+        return label().getTextColor();
+    }
+
+    public void setLabelTextColor(@ColorInt int labelTextColor) {
+        label().setTextColor(labelTextColor);
+    }
+
+    public void setLabelTextColor(ColorStateList labelTextColors) {
+        label().setTextColor(labelTextColors);
     }
 
-    public void setLabelTextColor(int labelTextColor) {
-        mLabel.setTextColor(labelTextColor);
+    public void setLabelTextColorResource(@ColorRes int labelTextColor) {
+        label().setTextColorResource(labelTextColor);
     }
 
     public float getLabelTextSize() {
-        return mLabel.getTextSize();
+        return label().getTextSize();
     }
 
-    private void setLabelTextSize(int labelTextSize) {
-        mLabel.setTextSize(labelTextSize);
+    void setLabelTextSize(int labelTextSize) {
+        label().setTextSize(labelTextSize);
     }
 
     public void setLabelTextSize(float labelTextSize) {
-        mLabel.setTextSize(labelTextSize);
+        label().setTextSize(labelTextSize);
     }
 
     public String[] getLabels() {
-        return mLabel.getLabels();
+        return label().getLabels();
     }
 
     public void setLabels(String[] labels) {
-        mLabel.setLabels(labels);
+        label().setLabels(labels);
     }
 
     public void setLabels(String labelsString, String regex) {
-        mLabel.setLabels(labelsString, regex);
+        label().setLabels(labelsString, regex);
     }
 
     public double[] getLabelsRange() {
-        return mLabel.getLabelsRange();
+        return label().getLabelsRange();
     }
 
     public void setLabelsRange(double[] labelsRange) {
-        mLabel.setLabelsRange(labelsRange);
+        label().setLabelsRange(labelsRange);
     }
 
     public void setLabelsRange(String labelsRangeString, String regex) {
-        mLabel.setLabelsRange(labelsRangeString, regex);
+        label().setLabelsRange(labelsRangeString, regex);
     }
 
     public String getLabel() {
-        return mLabel.getLabelToDraw();
+        return label().getLabelToDraw();
     }
 
     private void setLabel(String label) {
-        mLabel.setLabelToDraw(label);
+        label().setLabelToDraw(label);
     }
 
     public Typeface getLabelFont() {
-        return mLabel.getFont();
+        return label().getFont();
     }
 
     public void setLabelFont(Typeface labelFont) {
-        mLabel.setFont(labelFont);
+        label().setFont(labelFont);
     }
 
     public void setLabelFont(@FontRes int labelFont) {
-        mLabel.setFont(labelFont);
+        label().setFont(labelFont);
     }
 
     /* -------------- End of label attributes -------------- */
 
+    /* -------------- Rendering attributes -------------- */
+
+    @LayerPolicy
+    public int getLayerPolicy() {
+        return mLayerPolicy;
+    }
+
+    /**
+     * Set when the view renders into a hardware layer. Layer holds GPU memory of the size
+     * of the view, and content of the view changes on each frame of animation, so by default
+     * no layer is used.
+     *
+     * @param layerPolicy one of {@link #LAYER_POLICY_NONE},
+     *                    {@link #LAYER_POLICY_WHILE_ANIMATING} and {@link #LAYER_POLICY_ALWAYS}
+     */
+    public void setLayerPolicy(@LayerPolicy int layerPolicy) {
+        if (mLayerPolicy == layerPolicy) return;
+        if (layerPolicy == LAYER_POLICY_NONE && getLayerType() == View.LAYER_TYPE_HARDWARE) {
+            removeCallbacks(mLayerReleaser);
+            mLayerReleaser.run();
+        }
+        mLayerPolicy = layerPolicy;
+        updateLayerType();
+    }
+
+    public boolean isStaticLayerEnabled() {
+        return mStaticLayerEnabled;
+    }
+
+    /**
+     * Enable rendering of minValue, maxValue and bar into a cached bitmap, which is drawn on
+     * each frame instead of these elements. Reduces the cost of frames of value animation
+     * at the expense of a bitmap of the size of the view.
+     *
+     * @param staticLayerEnabled true to enable static layer
+     */
+    public void setStaticLayerEnabled(boolean staticLayerEnabled) {
+        if (mStaticLayerEnabled != staticLayerEnabled) {
+            mStaticLayerEnabled = staticLayerEnabled;
+            if (!staticLayerEnabled) releaseStaticLayer();
+            invalidate();
+        }
+    }
+
+    /* -------------- End of rendering attributes -------------- */
+
+    /* -------------- Measure attributes -------------- */
+
+    public boolean isStableMeasure() {
+        return mStableMeasure;
+    }
+
+    /**
+     * Enable measuring the view for the widest text of value within the range from minValue
+     * to maxValue in the current format, instead of the text of the current value.
+     * Size of the view then doesn't depend on the value, so that changing value never
+     * requires layout.
+     *
+     * @param stableMeasure true to enable stable measure mode
+     */
+    public void setStableMeasure(boolean stableMeasure) {
+        if (mStableMeasure != stableMeasure) {
+            mStableMeasure = stableMeasure;
+            requestRelayout();
+        }
+    }
+
+    /* -------------- End of measure attributes -------------- */
+
+    /* -------------- Value update attributes -------------- */
+
+    public boolean isValueCoalesced() {
+        return mValueCoalesced;
+    }
+
+    /**
+     * Enable coalescing of value updates. Values set within a frame are then only recorded,
+     * and their aggregate is applied once on the next frame. Disabling coalescing applies
+     * values recorded so far immediately.
+     *
+     * @param valueCoalesced true to coalesce value updates
+     */
+    public void setValueCoalesced(boolean valueCoalesced) {
+        if (mValueCoalesced == valueCoalesced) return;
+        mValueCoalesced = valueCoalesced;
+        if (valueCoalesced) {
+            if (mValueCoalescer == null) createValueCoalescer();
+        } else {
+            mValueCoalescer.flush();
+        }
+    }
+
+    @ValueAggregation
+    public int getValueAggregation() {
+        return mValueCoalescer != null ? mValueCoalescer.getAggregation() : AGGREGATION_LAST;
+    }
+
+    /**
+     * Set how values set within a frame are aggregated while value updates are coalesced.
+     * Aggregating by min or max keeps spikes visible, which the last value may miss.
+     *
+     * @param valueAggregation one of {@link #AGGREGATION_LAST}, {@link #AGGREGATION_MIN},
+     *                         {@link #AGGREGATION_MAX} and {@link #AGGREGATION_MEAN}
+     */
+    public void setValueAggregation(@ValueAggregation int valueAggregation) {
+        if (mValueCoalescer == null) createValueCoalescer();
+        mValueCoalescer.setAggregation(valueAggregation);
+    }
+
+    private void createValueCoalescer() {
+        mValueCoalescer = new ValueCoalescer(this);
+        mValueCoalescer.setPaused(mIsAnimationPaused);
+    }
+
+    /* -------------- End of value update attributes -------------- */
+
     //endregion getter/setter
     //----------------------------------
 }
\ No newline at end of file
@@ -8,7 +8,10 @@
 package org.ogasimli.healthbarview;
 
 import android.content.Context;
+import android.content.res.ColorStateList;
 import android.graphics.Paint;
+import android.support.annotation.ColorInt;
+import android.support.annotation.ColorRes;
 import android.view.View;
 
 /**
@@ -35,16 +38,18 @@ class Indicator {
     //----------------------------------
     // Member variables of the class
 
-    private final View mView;
+    private final HealthBarView mView;
 
     private final Context mContext;
 
-    private final Paint mPaint;
+    private Paint mPaint; //obtained from paint pool on first use
 
     private int mWidth;
 
     private int mColor;
 
+    private ColorStateList mColors; //null if color doesn't depend on state
+
     private int mTopOverflow;
 
     private int mBottomOverflow;
@@ -55,7 +60,7 @@ class Indicator {
     //----------------------------------
     // Constructors
 
-    Indicator(View view, Context context, int width, int color, int topOverflow,
+    Indicator(HealthBarView view, Context context, int width, int color, int topOverflow,
                      int bottomOverflow) {
         mWidth = width;
         mColor = color;
@@ -63,17 +68,15 @@ class Indicator {
         mBottomOverflow = bottomOverflow;
         mView = view;
         mContext = context;
-        mPaint = setupPaint();
     }
 
-    Indicator(View view, Context context) {
+    Indicator(HealthBarView view, Context context) {
         mWidth = DEFAULT_WIDTH;
         mColor = DEFAULT_COLOR;
         mTopOverflow = DEFAULT_TOP_OVERFLOW;
         mBottomOverflow = DEFAULT_BOTTOM_OVERFLOW;
         mView = view;
         mContext = context;
-        mPaint = setupPaint();
     }
 
     // endregion constructors
@@ -83,18 +86,12 @@ class Indicator {
     // Helper methods
 
     /**
-     * Setup paint object
-     * Call only if changes to color or size properties are not visible.
+     * Obtain paint matching the configuration from the pool of shared paints
      *
-     * @return setup and return TextPaint object
+     * @return shared Paint object, which must not be modified
      */
-    private Paint setupPaint() {
-        Paint paint = new Paint();
-        paint.setAntiAlias(true);
-        paint.setStyle(Paint.Style.STROKE);
-        paint.setColor(mColor);
-        paint.setStrokeWidth(mWidth);
-        return paint;
+    private Paint obtainPaint() {
+        return PaintPool.obtainStrokePaint(mColor, mWidth);
     }
 
     // endregion helper methods
@@ -108,6 +105,9 @@ class Indicator {
     }
 
     Paint getPaint() {
+        if (mPaint == null) {
+            mPaint = obtainPaint();
+        }
         return mPaint;
     }
 
@@ -117,8 +117,8 @@ class Indicator {
 
     void setWidth(int width) {
         mWidth = width;
-        mPaint.setStrokeWidth(width);
-        mView.requestLayout();
+        if (mPaint != null) mPaint = obtainPaint();
+        mView.requestRelayout();
     }
 
     void setWidth(float width) {
@@ -129,9 +129,39 @@ class Indicator {
         return mColor;
     }
 
-    void setColor(int color) {
-        mColor = Util.colorSetter(mContext, color);
-        mPaint.setColor(color);
+    void setColor(@ColorInt int color) {
+        mColors = null;
+        applyColor(color);
+    }
+
+    void setColor(ColorStateList colors) {
+        mColors = colors;
+        applyColor(colors.getColorForState(mView.getDrawableState(), colors.getDefaultColor()));
+    }
+
+    void setColorResource(@ColorRes int color) {
+        setColor(ColorCache.getColorStateList(mContext, color));
+    }
+
+    /**
+     * Update color to match the drawable state of the view
+     *
+     * @param state the drawable state of the view
+     * @return true if color changed
+     */
+    boolean updateColorState(int[] state) {
+        if (mColors == null || !mColors.isStateful()) return false;
+        int color = mColors.getColorForState(state, mColors.getDefaultColor());
+        if (color == mColor) return false;
+        mColor = color;
+        if (mPaint != null) mPaint = obtainPaint();
+        return true;
+    }
+
+    private void applyColor(int color) {
+        if (color == mColor) return;
+        mColor = color;
+        if (mPaint != null) mPaint = obtainPaint();
         mView.invalidate();
     }
 
@@ -141,7 +171,7 @@ class Indicator {
 
     void setTopOverflow(int topOverflow) {
         mTopOverflow = topOverflow;
-        mView.requestLayout();
+        mView.requestRelayout();
     }
 
     void setTopOverflow(float topOverflow) {
@@ -154,7 +184,7 @@ class Indicator {
 
     void setBottomOverflow(int bottomOverflow) {
         mBottomOverflow = bottomOverflow;
-        mView.requestLayout();
+        mView.requestRelayout();
     }
 
     void setBottomOverflow(float bottomOverflow) {
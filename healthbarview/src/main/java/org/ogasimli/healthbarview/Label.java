@@ -8,15 +8,15 @@
 package org.ogasimli.healthbarview;
 
 import android.content.Context;
-import android.content.res.Resources;
+import android.content.res.ColorStateList;
 import android.graphics.Typeface;
+import android.support.annotation.ColorInt;
+import android.support.annotation.ColorRes;
 import android.support.annotation.FontRes;
-import android.support.v4.content.res.ResourcesCompat;
 import android.text.TextPaint;
 import android.view.View;
 
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 
 /**
@@ -45,11 +45,17 @@ class Label  extends BaseTextElement {
     //----------------------------------
     // Member variables of the class
 
-    private final View mView;
+    private final HealthBarView mView;
 
     private final Context mContext;
 
-    private final TextPaint mPaint;
+    private TextPaint mPaint; //obtained from paint pool on first use
+
+    private TextMetrics mTextMetrics; //created on first use
+
+    private ColorStateList mTextColors; //null if text color doesn't depend on state
+
+    private int mPendingFont; //font resource being loaded, or 0
 
     private String[] mLabels;
 
@@ -57,13 +63,17 @@ class Label  extends BaseTextElement {
 
     private double[] mLabelsRange;
 
+    private LabelTable mLabelTable; //rebuilt on change of labels, their ranges or range of values
+
+    private int mMaxTextWidth = -1; //width of the widest label, measured on demand
+
     // endregion member variables
     //----------------------------------
 
     //----------------------------------
     // Constructors
 
-    Label(View view, Context context, boolean isVisible, int valueTextColor,
+    Label(HealthBarView view, Context context, boolean isVisible, int valueTextColor,
                     int valueTextSize, Typeface valueFont, String[] labels) {
         super(isVisible,
                 valueTextColor,
@@ -72,10 +82,9 @@ class Label  extends BaseTextElement {
         mLabels = labels;
         mView = view;
         mContext = context;
-        mPaint = setupPaint();
     }
 
-    Label(View view, Context context) {
+    Label(HealthBarView view, Context context) {
         super(DEFAULT_VISIBILITY,
                 DEFAULT_TEXT_COLOR,
                 DEFAULT_TEXT_SIZE,
@@ -83,10 +92,9 @@ class Label  extends BaseTextElement {
         mLabels = DEFAULT_LABEL_SET;
         mView = view;
         mContext = context;
-        mPaint = setupPaint();
     }
 
-    Label(View view, Context context, String[] labels) {
+    Label(HealthBarView view, Context context, String[] labels) {
         super(DEFAULT_VISIBILITY,
                 DEFAULT_TEXT_COLOR,
                 DEFAULT_TEXT_SIZE,
@@ -94,7 +102,6 @@ class Label  extends BaseTextElement {
         mLabels = labels;
         mView = view;
         mContext = context;
-        mPaint = setupPaint();
     }
 
     // endregion constructors
@@ -104,18 +111,22 @@ class Label  extends BaseTextElement {
     // Helper methods
 
     /**
-     * Setup paint object
-     * Call only if changes to color or size properties are not visible.
+     * Obtain paint matching the configuration from the pool of shared paints
      *
-     * @return setup and return TextPaint object
+     * @return shared TextPaint object, which must not be modified
      */
-    private TextPaint setupPaint() {
-        TextPaint paint = new TextPaint();
-        paint.setAntiAlias(true);
-        paint.setTypeface(getFont());
-        paint.setColor(getTextColor());
-        paint.setTextSize(getTextSize());
-        return paint;
+    private TextPaint obtainPaint() {
+        return PaintPool.obtainTextPaint(getTextColor(), getTextSize(), getFont());
+    }
+
+    /**
+     * Replace paint after change of configuration, unless it wasn't used yet
+     */
+    private void updatePaint() {
+        if (mPaint != null) {
+            mPaint = obtainPaint();
+            if (mTextMetrics != null) mTextMetrics.setPaint(mPaint);
+        }
     }
 
     // endregion helper methods
@@ -129,28 +140,84 @@ class Label  extends BaseTextElement {
     }
 
     TextPaint getPaint() {
+        if (mPaint == null) {
+            mPaint = obtainPaint();
+        }
         return mPaint;
     }
 
+    TextMetrics getTextMetrics() {
+        if (mTextMetrics == null) {
+            mTextMetrics = new TextMetrics(getPaint());
+        }
+        return mTextMetrics;
+    }
+
+    /**
+     * Get pixel width of the widest label, which is measured only once after change of labels,
+     * font or text size
+     */
+    int getMaxTextWidth() {
+        if (mMaxTextWidth < 0) {
+            int maxTextWidth = 0;
+            for (String label : mLabels) {
+                maxTextWidth = Math.max(maxTextWidth, getTextMetrics().getTextWidth(label));
+            }
+            mMaxTextWidth = maxTextWidth;
+        }
+        return mMaxTextWidth;
+    }
+
     @Override
     void setVisible(boolean visible) {
         super.setVisible(visible);
-        mView.requestLayout();
+        mView.requestRelayout();
     }
 
     @Override
-    void setTextColor(int textColor) {
-        int color = Util.colorSetter(mContext, textColor);
+    void setTextColor(@ColorInt int textColor) {
+        mTextColors = null;
+        applyTextColor(textColor);
+    }
+
+    void setTextColor(ColorStateList textColors) {
+        mTextColors = textColors;
+        applyTextColor(textColors.getColorForState(mView.getDrawableState(),
+                textColors.getDefaultColor()));
+    }
+
+    void setTextColorResource(@ColorRes int textColor) {
+        setTextColor(ColorCache.getColorStateList(mContext, textColor));
+    }
+
+    /**
+     * Update text color to match the drawable state of the view
+     *
+     * @param state the drawable state of the view
+     * @return true if text color changed
+     */
+    boolean updateColorState(int[] state) {
+        if (mTextColors == null || !mTextColors.isStateful()) return false;
+        int color = mTextColors.getColorForState(state, mTextColors.getDefaultColor());
+        if (color == getTextColor()) return false;
         super.setTextColor(color);
-        mPaint.setColor(color);
+        updatePaint();
+        return true;
+    }
+
+    private void applyTextColor(int color) {
+        if (color == getTextColor()) return;
+        super.setTextColor(color);
+        updatePaint();
         mView.invalidate();
     }
 
     @Override
     void setTextSize(int textSize) {
         super.setTextSize(textSize);
-        mPaint.setTextSize(textSize);
-        mView.requestLayout();
+        updatePaint();
+        mMaxTextWidth = -1;
+        mView.requestRelayout();
     }
 
     void setTextSize(float textSize) {
@@ -159,16 +226,25 @@ class Label  extends BaseTextElement {
 
     @Override
     void setFont(Typeface font) {
+        mPendingFont = 0;
         super.setFont(font);
-        mPaint.setTypeface(font);
-        mView.requestLayout();
+        updatePaint();
+        mMaxTextWidth = -1;
+        mView.requestRelayout();
     }
 
+    /**
+     * Load font asynchronously. Current font is used until the new one is loaded.
+     */
     void setFont(@FontRes int font) {
-        try {
-            setFont(ResourcesCompat.getFont(mContext, font));
-        } catch (Resources.NotFoundException e) {
-            e.printStackTrace();
+        mPendingFont = font;
+        FontCache.load(mContext, font, this::onFontLoaded);
+    }
+
+    private void onFontLoaded(@FontRes int font, Typeface typeface) {
+        // Ignore fonts superseded by later calls
+        if (font == mPendingFont) {
+            setFont(typeface);
         }
     }
 
@@ -178,7 +254,9 @@ class Label  extends BaseTextElement {
 
     void setLabels(String[] labels) {
         mLabels = labels;
-        mView.requestLayout();
+        mLabelTable = null;
+        mMaxTextWidth = -1;
+        mView.requestRelayout();
     }
 
     void setLabels(String labelsString, String regex) {
@@ -200,6 +278,7 @@ class Label  extends BaseTextElement {
 
     void setLabelsRange(double[] labelsRange) {
         mLabelsRange = labelsRange;
+        mLabelTable = null;
         mView.invalidate();
     }
 
@@ -209,6 +288,7 @@ class Label  extends BaseTextElement {
         for (int i = 0; i < ranges.size(); i++) {
             mLabelsRange[i] = Double.parseDouble(ranges.get(i));
         }
+        mLabelTable = null;
         mView.invalidate();
     }
 
@@ -220,19 +300,9 @@ class Label  extends BaseTextElement {
      * @param maxValue the end point of range
      */
     void setLabelToDraw(double value, double minValue, double maxValue) {
-        if (mLabelsRange == null || mLabelsRange.length != mLabels.length) {
-            if (minValue > maxValue) Collections.reverse(Arrays.asList(mLabels));
-            double fraction = Math.abs(maxValue - minValue) / mLabels.length;
-            int index = (int) (Math.abs(value - minValue) / fraction);
-            index = Math.min(index, mLabels.length - 1);
-            mLabelToDraw = mLabels[index];
-        } else {
-            for (int i = 0; i < mLabelsRange.length; i++) {
-                if (value <= mLabelsRange[i]) {
-                    mLabelToDraw = mLabels[i];
-                    break;
-                }
-            }
+        if (mLabelTable == null || !mLabelTable.isBuiltFor(minValue, maxValue)) {
+            mLabelTable = LabelTable.create(mLabels, mLabelsRange, minValue, maxValue);
         }
+        mLabelToDraw = mLabelTable.find(value);
     }
 }
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2018 Orkhan Gasimli - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * This file is proprietary and confidential.
+ * Written by Orkhan Gasimli <orkhan.gasimli@gmail.com> in 2018.
+ */
+
+package org.ogasimli.healthbarview;
+
+import java.util.Arrays;
+
+/**
+ * Immutable lookup table resolving the label of a value.
+ * Labels either divide the range from minValue to maxValue evenly, or each of them covers values
+ * up to its upper bound given by labels range.
+ *
+ * @author Orkhan Gasimli on 17.10.2026.
+ */
+final class LabelTable {
+
+    //----------------------------------
+    // Member variables of the class
+
+    private final double mMinValue;
+
+    private final double mMaxValue;
+
+    // Labels in order of lookup, reversed if minValue is greater than maxValue
+    private final String[] mLabels;
+
+    // Strictly increasing upper bounds of labels, or null if labels divide the range evenly
+    private final double[] mBounds;
+
+    // endregion member variables
+    //----------------------------------
+
+    //----------------------------------
+    // Constructors
+
+    private LabelTable(double minValue, double maxValue, String[] labels, double[] bounds) {
+        mMinValue = minValue;
+        mMaxValue = maxValue;
+        mLabels = labels;
+        mBounds = bounds;
+    }
+
+    // endregion constructors
+    //----------------------------------
+
+    //----------------------------------
+    // Helper methods
+
+    /**
+     * Build lookup table of labels. Arrays passed are copied, hence never modified by the table.
+     *
+     * @param labels      the labels
+     * @param labelsRange the upper bounds of labels, or null if labels divide the range evenly
+     * @param minValue    the starting point of range
+     * @param maxValue    the end point of range
+     */
+    static LabelTable create(String[] labels, double[] labelsRange, double minValue,
+                             double maxValue) {
+        if (labelsRange == null || labelsRange.length != labels.length) {
+            return createEven(labels, minValue, maxValue);
+        }
+
+        // A label is reachable only if its bound is greater than bounds of all labels before it,
+        // since the first label whose bound is not less than the value wins
+        double[] bounds = new double[labels.length];
+        String[] reachable = new String[labels.length];
+        int count = 0;
+        for (int i = 0; i < labels.length; i++) {
+            double bound = labelsRange[i];
+            if (count == 0 ? !Double.isNaN(bound) : bound > bounds[count - 1]) {
+                bounds[count] = bound;
+                reachable[count] = labels[i];
+                count++;
+            }
+        }
+        if (count == 0) {
+            return createEven(labels, minValue, maxValue);
+        }
+        return new LabelTable(minValue, maxValue, Arrays.copyOf(reachable, count),
+                Arrays.copyOf(bounds, count));
+    }
+
+    /**
+     * Build lookup table of labels dividing the range evenly
+     *
+     * @param labels   the labels
+     * @param minValue the starting point of range
+     * @param maxValue the end point of range
+     */
+    private static LabelTable createEven(String[] labels, double minValue, double maxValue) {
+        String[] ordered = new String[labels.length];
+        for (int i = 0; i < labels.length; i++) {
+            ordered[i] = minValue > maxValue ? labels[labels.length - 1 - i] : labels[i];
+        }
+        return new LabelTable(minValue, maxValue, ordered, null);
+    }
+
+    /**
+     * Find the label of value
+     *
+     * @param value the actual value
+     */
+    String find(double value) {
+        if (mBounds == null) {
+            double fraction = Math.abs(mMaxValue - mMinValue) / mLabels.length;
+            int index = (int) (Math.abs(value - mMinValue) / fraction);
+            return mLabels[Math.min(index, mLabels.length - 1)];
+        }
+
+        // Binary search of the first bound not less than value, or the last one if none
+        int low = 0;
+        int high = mBounds.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (mBounds[middle] >= value) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return mLabels[low];
+    }
+
+    /**
+     * Determine whether table was built for the given range
+     *
+     * @param minValue the starting point of range
+     * @param maxValue the end point of range
+     */
+    boolean isBuiltFor(double minValue, double maxValue) {
+        return Double.compare(minValue, mMinValue) == 0
+                && Double.compare(maxValue, mMaxValue) == 0;
+    }
+
+    // endregion helper methods
+    //----------------------------------
+}
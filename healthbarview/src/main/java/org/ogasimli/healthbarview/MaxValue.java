@@ -8,10 +8,11 @@
 package org.ogasimli.healthbarview;
 
 import android.content.Context;
-import android.content.res.Resources;
+import android.content.res.ColorStateList;
 import android.graphics.Typeface;
+import android.support.annotation.ColorInt;
+import android.support.annotation.ColorRes;
 import android.support.annotation.FontRes;
-import android.support.v4.content.res.ResourcesCompat;
 import android.text.TextPaint;
 import android.view.View;
 
@@ -47,11 +48,17 @@ class MaxValue extends BaseValue {
     //----------------------------------
     // Member variables of the class
 
-    private final View mView;
+    private final HealthBarView mView;
 
     private final Context mContext;
 
-    private final TextPaint mPaint;
+    private TextPaint mPaint; //obtained from paint pool on first use
+
+    private TextMetrics mTextMetrics; //created on first use
+
+    private ColorStateList mTextColors; //null if text color doesn't depend on state
+
+    private int mPendingFont; //font resource being loaded, or 0
 
     // endregion member variables
     //----------------------------------
@@ -59,7 +66,7 @@ class MaxValue extends BaseValue {
     //----------------------------------
     // Constructors
 
-    MaxValue(View view, Context context, boolean isVisible, int valueTextColor,
+    MaxValue(HealthBarView view, Context context, boolean isVisible, int valueTextColor,
                     int valueTextSize, float value, String valueSuffix, Typeface valueFont,
                     DecimalFormat decimalFormat) {
         super(isVisible,
@@ -71,10 +78,9 @@ class MaxValue extends BaseValue {
                 decimalFormat);
         mView = view;
         mContext = context;
-        mPaint = setupPaint();
     }
 
-    MaxValue(View view, Context context) {
+    MaxValue(HealthBarView view, Context context) {
         super(DEFAULT_VISIBILITY,
                 DEFAULT_TEXT_COLOR,
                 DEFAULT_TEXT_SIZE,
@@ -84,10 +90,9 @@ class MaxValue extends BaseValue {
                 DEFAULT_DECIMAL_FORMAT);
         mView = view;
         mContext = context;
-        mPaint = setupPaint();
     }
 
-    MaxValue(View view, Context context, float value) {
+    MaxValue(HealthBarView view, Context context, double value) {
         super(DEFAULT_VISIBILITY,
                 DEFAULT_TEXT_COLOR,
                 DEFAULT_TEXT_SIZE,
@@ -97,7 +102,6 @@ class MaxValue extends BaseValue {
                 DEFAULT_DECIMAL_FORMAT);
         mView = view;
         mContext = context;
-        mPaint = setupPaint();
     }
 
     // endregion constructors
@@ -107,18 +111,22 @@ class MaxValue extends BaseValue {
     // Helper methods
 
     /**
-     * Setup paint object
-     * Call only if changes to color or size properties are not visible.
+     * Obtain paint matching the configuration from the pool of shared paints
      *
-     * @return setup and return TextPaint object
+     * @return shared TextPaint object, which must not be modified
+     */
+    private TextPaint obtainPaint() {
+        return PaintPool.obtainTextPaint(getTextColor(), getTextSize(), getFont());
+    }
+
+    /**
+     * Replace paint after change of configuration, unless it wasn't used yet
      */
-    private TextPaint setupPaint() {
-        TextPaint paint = new TextPaint();
-        paint.setAntiAlias(true);
-        paint.setTypeface(getFont());
-        paint.setColor(getTextColor());
-        paint.setTextSize(getTextSize());
-        return paint;
+    private void updatePaint() {
+        if (mPaint != null) {
+            mPaint = obtainPaint();
+            if (mTextMetrics != null) mTextMetrics.setPaint(mPaint);
+        }
     }
 
     // endregion helper methods
@@ -132,9 +140,19 @@ class MaxValue extends BaseValue {
     }
 
     TextPaint getPaint() {
+        if (mPaint == null) {
+            mPaint = obtainPaint();
+        }
         return mPaint;
     }
 
+    TextMetrics getTextMetrics() {
+        if (mTextMetrics == null) {
+            mTextMetrics = new TextMetrics(getPaint());
+        }
+        return mTextMetrics;
+    }
+
     String getTextToDraw() {
         return Util.formatValueText(getValue(), getSuffix(), getDecimalFormat());
     }
@@ -142,28 +160,58 @@ class MaxValue extends BaseValue {
     @Override
     void setValue(double value) {
         super.setValue(value);
-        mView.invalidate();
+        mView.requestRelayout();
     }
 
     @Override
     void setVisible(boolean visible) {
         super.setVisible(visible);
-        mView.requestLayout();
+        mView.requestRelayout();
     }
 
     @Override
-    void setTextColor(int textColor) {
-        int color = Util.colorSetter(mContext, textColor);
+    void setTextColor(@ColorInt int textColor) {
+        mTextColors = null;
+        applyTextColor(textColor);
+    }
+
+    void setTextColor(ColorStateList textColors) {
+        mTextColors = textColors;
+        applyTextColor(textColors.getColorForState(mView.getDrawableState(),
+                textColors.getDefaultColor()));
+    }
+
+    void setTextColorResource(@ColorRes int textColor) {
+        setTextColor(ColorCache.getColorStateList(mContext, textColor));
+    }
+
+    /**
+     * Update text color to match the drawable state of the view
+     *
+     * @param state the drawable state of the view
+     * @return true if text color changed
+     */
+    boolean updateColorState(int[] state) {
+        if (mTextColors == null || !mTextColors.isStateful()) return false;
+        int color = mTextColors.getColorForState(state, mTextColors.getDefaultColor());
+        if (color == getTextColor()) return false;
         super.setTextColor(color);
-        mPaint.setColor(color);
+        updatePaint();
+        return true;
+    }
+
+    private void applyTextColor(int color) {
+        if (color == getTextColor()) return;
+        super.setTextColor(color);
+        updatePaint();
         mView.invalidate();
     }
 
     @Override
     void setTextSize(int textSize) {
         super.setTextSize(textSize);
-        mPaint.setTextSize(textSize);
-        mView.requestLayout();
+        updatePaint();
+        mView.requestRelayout();
     }
 
     void setTextSize(float textSize) {
@@ -174,22 +222,30 @@ class MaxValue extends BaseValue {
     void setSuffix(String suffix) {
         if (suffix != null) {
             super.setSuffix(suffix);
-            mView.requestLayout();
+            mView.requestRelayout();
         }
     }
 
     @Override
     void setFont(Typeface font) {
+        mPendingFont = 0;
         super.setFont(font);
-        mPaint.setTypeface(font);
-        mView.requestLayout();
+        updatePaint();
+        mView.requestRelayout();
     }
 
+    /**
+     * Load font asynchronously. Current font is used until the new one is loaded.
+     */
     void setFont(@FontRes int font) {
-        try {
-            setFont(ResourcesCompat.getFont(mContext, font));
-        } catch (Resources.NotFoundException e) {
-            e.printStackTrace();
+        mPendingFont = font;
+        FontCache.load(mContext, font, this::onFontLoaded);
+    }
+
+    private void onFontLoaded(@FontRes int font, Typeface typeface) {
+        // Ignore fonts superseded by later calls
+        if (font == mPendingFont) {
+            setFont(typeface);
         }
     }
 
@@ -197,7 +253,7 @@ class MaxValue extends BaseValue {
     void setDecimalFormat(DecimalFormat decimalFormat) {
         if (decimalFormat != null) {
             super.setDecimalFormat(decimalFormat);
-            mView.requestLayout();
+            mView.requestRelayout();
         }
     }
 }
@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2018 Orkhan Gasimli - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * This file is proprietary and confidential.
+ * Written by Orkhan Gasimli <orkhan.gasimli@gmail.com> in 2018.
+ */
+
+package org.ogasimli.healthbarview;
+
+import android.graphics.LinearGradient;
+import android.graphics.Paint;
+import android.graphics.Shader;
+import android.graphics.Typeface;
+import android.text.TextPaint;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Pool of paints shared by all elements with identical configuration.
+ * Paints obtained from the pool must never be modified. Elements obtain another paint
+ * whenever their configuration changes instead. Paints not used by any element are
+ * garbage collected.
+ *
+ * @author Orkhan Gasimli on 17.10.2026.
+ */
+final class PaintPool {
+
+    //----------------------------------
+    // Static fields
+
+    private static final int TYPE_TEXT = 0;
+
+    private static final int TYPE_STROKE = 1;
+
+    private static final int TYPE_GRADIENT = 2;
+
+    // Min number of entries, after which collected paints are removed from the pool
+    private static final int MIN_PURGE_THRESHOLD = 64;
+
+    private static final Map<Key, WeakReference<Paint>> sPaints = new HashMap<>();
+
+    private static int sPurgeThreshold = MIN_PURGE_THRESHOLD;
+
+    // endregion static fields
+    //----------------------------------
+
+    //----------------------------------
+    // Constructors
+
+    private PaintPool() {
+    }
+
+    // endregion constructors
+    //----------------------------------
+
+    //----------------------------------
+    // Helper methods
+
+    /**
+     * Obtain antialiased paint for text
+     *
+     * @param color    the color of text
+     * @param textSize the size of text in pixels
+     * @param typeface the typeface of text
+     */
+    static TextPaint obtainTextPaint(int color, int textSize, Typeface typeface) {
+        return (TextPaint) obtain(new Key(TYPE_TEXT, color, textSize, typeface, null, null,
+                null));
+    }
+
+    /**
+     * Obtain antialiased paint for stroke
+     *
+     * @param color the color of stroke
+     * @param width the width of stroke in pixels
+     */
+    static Paint obtainStrokePaint(int color, int width) {
+        return obtain(new Key(TYPE_STROKE, color, width, null, null, null, null));
+    }
+
+    /**
+     * Obtain antialiased paint filling with horizontal linear gradient
+     *
+     * @param colors    the colors distributed along the gradient line
+     * @param positions the relative positions of colors, or null to distribute them evenly
+     * @param left      the left-coordinate of the gradient line
+     * @param top       the top-coordinate of the gradient line
+     * @param right     the right-coordinate of the gradient line
+     * @param bottom    the bottom-coordinate of the gradient line
+     */
+    static Paint obtainGradientPaint(int[] colors, float[] positions, float left, float top,
+                                     float right, float bottom) {
+        return obtain(new Key(TYPE_GRADIENT, 0, 0, null, colors.clone(),
+                positions != null ? positions.clone() : null,
+                new float[]{left, top, right, bottom}));
+    }
+
+    /**
+     * Get paint for key from the pool or create and add it to the pool
+     *
+     * @param key the configuration of paint
+     */
+    private static synchronized Paint obtain(Key key) {
+        WeakReference<Paint> reference = sPaints.get(key);
+        Paint paint = reference != null ? reference.get() : null;
+        if (paint == null) {
+            paint = key.createPaint();
+            sPaints.put(key, new WeakReference<>(paint));
+            if (sPaints.size() > sPurgeThreshold) {
+                purge();
+            }
+        }
+        return paint;
+    }
+
+    /**
+     * Remove entries of collected paints
+     */
+    private static void purge() {
+        Iterator<WeakReference<Paint>> iterator = sPaints.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().get() == null) {
+                iterator.remove();
+            }
+        }
+        sPurgeThreshold = Math.max(MIN_PURGE_THRESHOLD, sPaints.size() * 2);
+    }
+
+    // endregion helper methods
+    //----------------------------------
+
+    /**
+     * Configuration of paint
+     */
+    private static final class Key {
+
+        private final int mType;
+
+        private final int mColor;
+
+        private final int mSize;
+
+        private final Typeface mTypeface;
+
+        private final int[] mColors;
+
+        private final float[] mPositions;
+
+        private final float[] mBounds;
+
+        private Key(int type, int color, int size, Typeface typeface, int[] colors,
+                    float[] positions, float[] bounds) {
+            mType = type;
+            mColor = color;
+            mSize = size;
+            mTypeface = typeface;
+            mColors = colors;
+            mPositions = positions;
+            mBounds = bounds;
+        }
+
+        private Paint createPaint() {
+            Paint paint;
+            switch (mType) {
+                case TYPE_TEXT:
+                    paint = new TextPaint();
+                    paint.setTypeface(mTypeface);
+                    paint.setColor(mColor);
+                    paint.setTextSize(mSize);
+                    break;
+                case TYPE_STROKE:
+                    paint = new Paint();
+                    paint.setStyle(Paint.Style.STROKE);
+                    paint.setStrokeWidth(mSize);
+                    paint.setColor(mColor);
+                    break;
+                default:
+                    paint = new Paint();
+                    paint.setStyle(Paint.Style.FILL);
+                    paint.setShader(new LinearGradient(mBounds[0], mBounds[1], mBounds[2],
+                            mBounds[3], mColors, mPositions, Shader.TileMode.CLAMP));
+                    break;
+            }
+            paint.setAntiAlias(true);
+            return paint;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return mType == key.mType
+                    && mColor == key.mColor
+                    && mSize == key.mSize
+                    && (mTypeface == null ? key.mTypeface == null
+                    : mTypeface.equals(key.mTypeface))
+                    && Arrays.equals(mColors, key.mColors)
+                    && Arrays.equals(mPositions, key.mPositions)
+                    && Arrays.equals(mBounds, key.mBounds);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = mType;
+            result = 31 * result + mColor;
+            result = 31 * result + mSize;
+            result = 31 * result + (mTypeface != null ? mTypeface.hashCode() : 0);
+            result = 31 * result + Arrays.hashCode(mColors);
+            result = 31 * result + Arrays.hashCode(mPositions);
+            result = 31 * result + Arrays.hashCode(mBounds);
+            return result;
+        }
+    }
+}
@@ -8,7 +8,10 @@
 package org.ogasimli.healthbarview;
 
 import android.content.Context;
+import android.content.res.ColorStateList;
 import android.graphics.Paint;
+import android.support.annotation.ColorInt;
+import android.support.annotation.ColorRes;
 import android.view.View;
 
 /**
@@ -31,36 +34,36 @@ class Stroke {
     //----------------------------------
     // Member variables of the class
 
-    private final View mView;
+    private final HealthBarView mView;
 
     private final Context mContext;
 
-    private final Paint mPaint;
+    private Paint mPaint; //obtained from paint pool on first use
 
     private int mWidth;
 
     private int mColor;
 
+    private ColorStateList mColors; //null if color doesn't depend on state
+
     // endregion member variables
     //----------------------------------
 
     //----------------------------------
     // Constructors
 
-    Stroke(View view, Context context, int width, int color) {
+    Stroke(HealthBarView view, Context context, int width, int color) {
         mWidth = width;
         mColor = color;
         mView = view;
         mContext = context;
-        mPaint = setupPaint();
     }
 
-    Stroke(View view, Context context) {
+    Stroke(HealthBarView view, Context context) {
         mWidth = DEFAULT_WIDTH;
         mColor = DEFAULT_COLOR;
         mView = view;
         mContext = context;
-        mPaint = setupPaint();
     }
 
     // endregion constructors
@@ -70,18 +73,12 @@ class Stroke {
     // Helper methods
 
     /**
-     * Setup paint object
-     * Call only if changes to color or size properties are not visible.
+     * Obtain paint matching the configuration from the pool of shared paints
      *
-     * @return setup and return TextPaint object
+     * @return shared Paint object, which must not be modified
      */
-    private Paint setupPaint() {
-        Paint paint = new Paint();
-        paint.setAntiAlias(true);
-        paint.setStyle(Paint.Style.STROKE);
-        paint.setStrokeWidth(mWidth);
-        paint.setColor(mColor);
-        return paint;
+    private Paint obtainPaint() {
+        return PaintPool.obtainStrokePaint(mColor, mWidth);
     }
 
     // endregion helper methods
@@ -95,6 +92,9 @@ class Stroke {
     }
 
     Paint getPaint() {
+        if (mPaint == null) {
+            mPaint = obtainPaint();
+        }
         return mPaint;
     }
 
@@ -104,17 +104,47 @@ class Stroke {
 
     void setWidth(int width) {
         mWidth = width;
-        mPaint.setStrokeWidth(width);
-        mView.requestLayout();
+        if (mPaint != null) mPaint = obtainPaint();
+        mView.requestRelayout();
     }
 
     int getColor() {
         return mColor;
     }
 
-    void setColor(int color) {
-        mColor = Util.colorSetter(mContext, color);
-        mPaint.setColor(color);
+    void setColor(@ColorInt int color) {
+        mColors = null;
+        applyColor(color);
+    }
+
+    void setColor(ColorStateList colors) {
+        mColors = colors;
+        applyColor(colors.getColorForState(mView.getDrawableState(), colors.getDefaultColor()));
+    }
+
+    void setColorResource(@ColorRes int color) {
+        setColor(ColorCache.getColorStateList(mContext, color));
+    }
+
+    /**
+     * Update color to match the drawable state of the view
+     *
+     * @param state the drawable state of the view
+     * @return true if color changed
+     */
+    boolean updateColorState(int[] state) {
+        if (mColors == null || !mColors.isStateful()) return false;
+        int color = mColors.getColorForState(state, mColors.getDefaultColor());
+        if (color == mColor) return false;
+        mColor = color;
+        if (mPaint != null) mPaint = obtainPaint();
+        return true;
+    }
+
+    private void applyColor(int color) {
+        if (color == mColor) return;
+        mColor = color;
+        if (mPaint != null) mPaint = obtainPaint();
         mView.invalidate();
     }
 }
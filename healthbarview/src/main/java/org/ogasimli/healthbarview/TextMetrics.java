@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2018 Orkhan Gasimli - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * This file is proprietary and confidential.
+ * Written by Orkhan Gasimli <orkhan.gasimli@gmail.com> in 2018.
+ */
+
+package org.ogasimli.healthbarview;
+
+import android.graphics.Paint;
+import android.graphics.Rect;
+
+/**
+ * Class caching metrics of the text drawn by the paint of a text element.
+ * Should be invalidated whenever typeface or size of the paint changes, which happens
+ * automatically when the paint is replaced.
+ *
+ * @author Orkhan Gasimli on 17.10.2026.
+ */
+final class TextMetrics {
+
+    //----------------------------------
+    // Member variables of the class
+
+    private Paint mPaint;
+
+    private final Paint.FontMetrics mFontMetrics = new Paint.FontMetrics();
+
+    private final Rect mBounds = new Rect();
+
+    private int mTextHeight = -1;
+
+    // Last measured text and its width
+    private String mText;
+
+    private int mTextWidth;
+
+    // endregion member variables
+    //----------------------------------
+
+    //----------------------------------
+    // Constructors
+
+    TextMetrics(Paint paint) {
+        mPaint = paint;
+    }
+
+    // endregion constructors
+    //----------------------------------
+
+    //----------------------------------
+    // Helper methods
+
+    /**
+     * Discard cached metrics after change of typeface or size of the paint
+     */
+    void invalidate() {
+        mTextHeight = -1;
+        mText = null;
+    }
+
+    /**
+     * Replace paint, whose text is measured, and discard cached metrics
+     *
+     * @param paint the paint
+     */
+    void setPaint(Paint paint) {
+        if (paint != mPaint) {
+            mPaint = paint;
+            invalidate();
+        }
+    }
+
+    /**
+     * Get height of the text drawn by the paint
+     */
+    int getTextHeight() {
+        if (mTextHeight < 0) {
+            mTextHeight = Util.determineTextHeight(mPaint, true, mFontMetrics);
+        }
+        return mTextHeight;
+    }
+
+    /**
+     * Get width of the text drawn by the paint
+     *
+     * @param text the string to be drawn
+     */
+    int getTextWidth(String text) {
+        if (text == null) {
+            return 0;
+        }
+        if (!text.equals(mText)) {
+            mTextWidth = Util.determineTextWidth(text, mPaint, true, mBounds);
+            mText = text;
+        }
+        return mTextWidth;
+    }
+
+    /**
+     * Get width of the text held in char array.
+     * Width is not cached, since the text is expected to change between calls.
+     *
+     * @param text   the char array holding the text to be drawn
+     * @param start  the index of the first char of the text
+     * @param length the number of chars of the text
+     */
+    int getTextWidth(char[] text, int start, int length) {
+        return Util.determineTextWidth(text, start, length, mPaint, true, mBounds);
+    }
+
+    // endregion helper methods
+    //----------------------------------
+
+    //----------------------------------
+    // Setter & getters
+
+    Paint.FontMetrics getFontMetrics() {
+        if (mTextHeight < 0) {
+            getTextHeight();
+        }
+        return mFontMetrics;
+    }
+}
@@ -7,13 +7,10 @@
 
 package org.ogasimli.healthbarview;
 
-import android.content.Context;
 import android.content.res.Resources;
 import android.graphics.Paint;
 import android.graphics.Rect;
 import android.support.annotation.NonNull;
-import android.support.v4.content.ContextCompat;
-import android.util.Log;
 
 import java.text.DecimalFormat;
 
@@ -24,8 +21,6 @@ import java.text.DecimalFormat;
  */
 final class Util {
 
-    private static final String LOG_TAG = Util.class.getSimpleName();
-
     /**
      * Convert dp to pixel
      *
@@ -79,31 +74,34 @@ final class Util {
     }
 
     /**
-     * Extract color int from color resource id and return it
+     * Calculate width of the text
      *
-     * @param color the int value representing either color int, or color resource id
-     * @return the color
+     * @param text   the string to be drawn
+     * @param paint  the paint object that will draw the text
+     * @param bounds the reusable rect object which receives bounds of the text
      */
-    static int colorSetter(Context context, int color) {
-        try {
-            return ContextCompat.getColor(context, color);
-        } catch (Resources.NotFoundException e) {
-            Log.d(LOG_TAG, "Color resource not found.");
-            return color;
+    static int determineTextWidth(String text, Paint paint, boolean isVisible, Rect bounds) {
+        if (isVisible) {
+            paint.getTextBounds(text, 0, text.length(), bounds);
+            return (int) ((paint.measureText(text) + bounds.width()) / 2);
         }
+        return 0;
     }
 
     /**
-     * Calculate width of the text
+     * Calculate width of the text held in char array
      *
-     * @param text  the string to be drawn
-     * @param paint the paint object that will draw the text
+     * @param text   the char array holding the text to be drawn
+     * @param start  the index of the first char of the text
+     * @param length the number of chars of the text
+     * @param paint  the paint object that will draw the text
+     * @param bounds the reusable rect object which receives bounds of the text
      */
-    static int determineTextWidth(String text, Paint paint, boolean isVisible) {
+    static int determineTextWidth(char[] text, int start, int length, Paint paint,
+                                  boolean isVisible, Rect bounds) {
         if (isVisible) {
-            Rect bounds = new Rect();
-            paint.getTextBounds(text, 0, text.length(), bounds);
-            return (int) ((paint.measureText(text) + bounds.width()) / 2);
+            paint.getTextBounds(text, start, length, bounds);
+            return (int) ((paint.measureText(text, start, length) + bounds.width()) / 2);
         }
         return 0;
     }
@@ -111,13 +109,14 @@ final class Util {
     /**
      * Calculate height of the text
      *
-     * @param paint the paint object that will draw the text
+     * @param paint       the paint object that will draw the text
+     * @param fontMetrics the reusable font metrics object which receives metrics of the paint
      */
-    static int determineTextHeight(Paint paint, boolean isVisible) {
+    static int determineTextHeight(Paint paint, boolean isVisible, Paint.FontMetrics fontMetrics) {
         if (isVisible) {
             // Get height from font metrics
-            Paint.FontMetrics fm = paint.getFontMetrics();
-            return (int) (fm.descent - fm.ascent);
+            paint.getFontMetrics(fontMetrics);
+            return (int) (fontMetrics.descent - fontMetrics.ascent);
         }
         return 0;
     }
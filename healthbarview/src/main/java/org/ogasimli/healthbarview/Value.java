@@ -7,12 +7,12 @@
 
 package org.ogasimli.healthbarview;
 
-import android.animation.ValueAnimator;
 import android.content.Context;
-import android.content.res.Resources;
+import android.content.res.ColorStateList;
 import android.graphics.Typeface;
+import android.support.annotation.ColorInt;
+import android.support.annotation.ColorRes;
 import android.support.annotation.FontRes;
-import android.support.v4.content.res.ResourcesCompat;
 import android.text.TextPaint;
 import android.view.View;
 
@@ -23,7 +23,7 @@ import java.text.DecimalFormat;
  *
  * @author Orkhan Gasimli on 24.01.2018.
  */
-class Value extends BaseValue {
+class Value extends BaseValue implements AnimationTicker.Client {
 
     //----------------------------------
     // Static fields used as default config values
@@ -46,33 +46,82 @@ class Value extends BaseValue {
 
     static final long DEFAULT_ANIMATION_DURATION = 4000L;
 
+    static final int DEFAULT_TEXT_TABLE_SIZE = 1024;
+
+    private static final long NANOS_PER_MILLI = 1000000L;
+
+    private static final char[] DIGITS = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9'};
+
+    // Max number of digits of a double formatted without rounding errors
+    private static final int MAX_EXACT_DIGITS = 15;
+
     // endregion static fields
     //----------------------------------
 
     //----------------------------------
     // Member variables of the class
 
-    private final View mView;
+    private final HealthBarView mView;
 
     private final Context mContext;
 
-    private final TextPaint mPaint;
+    private TextPaint mPaint; //obtained from paint pool on first use
+
+    private TextMetrics mTextMetrics; //created on first use
 
-    private ValueAnimator mAnimator;
+    private ColorStateList mTextColors; //null if text color doesn't depend on state
+
+    private int mPendingFont; //font resource being loaded, or 0
 
     private boolean mIsAnimated;
 
+    private boolean mIsAnimationPaused; //while the view isn't displayed
+
     private double mValueToDraw; //for use during animation
 
     private long mAnimationDuration; //default duration
 
+    private final ValueAnimation mAnimation = new ValueAnimation();
+
+    private ValueFormatter mFormatter; //recreated on change of suffix or decimal format
+
+    private ValueTextTable mTextTable; //texts of all displayable values, if there are few of them
+
+    private boolean mIsTextTableValid;
+
+    private int mTextTableSize;
+
+    private double mRangeMin;
+
+    private double mRangeMax;
+
+    // Text of mValueToDraw, either within text table or in buffer of formatter
+    private char[] mTextBuffer;
+
+    private int mTextStart;
+
+    private int mTextLength = -1;
+
+    private int mTextWidth = -1;
+
+    private double mFormattedValue;
+
+    // Copy of the last prepared text, used to tell whether displayed text has changed
+    private char[] mLastText = new char[0];
+
+    private int mLastTextLength = -1;
+
+    private int mTextVersion;
+
+    private int mMaxTextWidth = -1; //width of the widest text within the range
+
     // endregion member variables
     //----------------------------------
 
     //----------------------------------
     // Constructors
 
-    Value(View view, Context context, boolean isVisible, int valueTextColor,
+    Value(HealthBarView view, Context context, boolean isVisible, int valueTextColor,
                  int valueTextSize, float value, String valueSuffix, Typeface valueFont,
                  DecimalFormat decimalFormat, boolean isAnimated, long animationDuration) {
         super(isVisible,
@@ -85,12 +134,14 @@ class Value extends BaseValue {
         mIsAnimated = isAnimated;
         mValueToDraw = DEFAULT_VALUE;
         mAnimationDuration = animationDuration;
+        mTextTableSize = DEFAULT_TEXT_TABLE_SIZE;
+        mRangeMin = MinValue.DEFAULT_VALUE;
+        mRangeMax = MaxValue.DEFAULT_VALUE;
         mView = view;
         mContext = context;
-        mPaint = setupPaint();
     }
 
-    Value(View view, Context context) {
+    Value(HealthBarView view, Context context) {
         super(DEFAULT_VISIBILITY,
                 DEFAULT_TEXT_COLOR,
                 DEFAULT_TEXT_SIZE,
@@ -101,12 +152,14 @@ class Value extends BaseValue {
         mIsAnimated = DEFAULT_ANIMATION;
         mValueToDraw = DEFAULT_VALUE;
         mAnimationDuration = DEFAULT_ANIMATION_DURATION;
+        mTextTableSize = DEFAULT_TEXT_TABLE_SIZE;
+        mRangeMin = MinValue.DEFAULT_VALUE;
+        mRangeMax = MaxValue.DEFAULT_VALUE;
         mView = view;
         mContext = context;
-        mPaint = setupPaint();
     }
 
-    Value(View view, Context context, float value) {
+    Value(HealthBarView view, Context context, float value) {
         super(DEFAULT_VISIBILITY,
                 DEFAULT_TEXT_COLOR,
                 DEFAULT_TEXT_SIZE,
@@ -117,9 +170,11 @@ class Value extends BaseValue {
         mIsAnimated = DEFAULT_ANIMATION;
         mValueToDraw = DEFAULT_VALUE;
         mAnimationDuration = DEFAULT_ANIMATION_DURATION;
+        mTextTableSize = DEFAULT_TEXT_TABLE_SIZE;
+        mRangeMin = MinValue.DEFAULT_VALUE;
+        mRangeMax = MaxValue.DEFAULT_VALUE;
         mView = view;
         mContext = context;
-        mPaint = setupPaint();
     }
 
     // endregion constructors
@@ -129,18 +184,22 @@ class Value extends BaseValue {
     // Helper methods
 
     /**
-     * Setup paint object
-     * Call only if changes to color or size properties are not visible.
+     * Obtain paint matching the configuration from the pool of shared paints
      *
-     * @return setup and return TextPaint object
+     * @return shared TextPaint object, which must not be modified
      */
-    private TextPaint setupPaint() {
-        TextPaint paint = new TextPaint();
-        paint.setAntiAlias(true);
-        paint.setTypeface(getFont());
-        paint.setColor(getTextColor());
-        paint.setTextSize(getTextSize());
-        return paint;
+    private TextPaint obtainPaint() {
+        return PaintPool.obtainTextPaint(getTextColor(), getTextSize(), getFont());
+    }
+
+    /**
+     * Replace paint after change of configuration, unless it wasn't used yet
+     */
+    private void updatePaint() {
+        if (mPaint != null) {
+            mPaint = obtainPaint();
+            if (mTextMetrics != null) mTextMetrics.setPaint(mPaint);
+        }
     }
 
     // endregion helper methods
@@ -154,32 +213,234 @@ class Value extends BaseValue {
     }
 
     TextPaint getPaint() {
+        if (mPaint == null) {
+            mPaint = obtainPaint();
+        }
         return mPaint;
     }
 
-    String getTextToDraw() {
-        return Util.formatValueText(getValueToDraw(), getSuffix(), getDecimalFormat());
+    TextMetrics getTextMetrics() {
+        if (mTextMetrics == null) {
+            mTextMetrics = new TextMetrics(getPaint());
+        }
+        return mTextMetrics;
+    }
+
+    /**
+     * Prepare text of value to draw, which is then available via {@link #getTextBuffer()},
+     * {@link #getTextStart()} and {@link #getTextWidth()}.
+     * Text is taken from text table if possible and formatted otherwise, and only if value has
+     * changed since the last call.
+     *
+     * @return the length of the text
+     */
+    int formatTextToDraw() {
+        prepareTextTable();
+        if (mTextLength < 0 || Double.compare(mFormattedValue, mValueToDraw) != 0) {
+            mFormattedValue = mValueToDraw;
+            int index = mTextTable != null ? mTextTable.indexOf(mValueToDraw) : -1;
+            if (index >= 0) {
+                mTextBuffer = mTextTable.getChars();
+                mTextStart = mTextTable.getStart(index);
+                mTextLength = mTextTable.getLength(index);
+                mTextWidth = mTextTable.getWidth(index);
+            } else {
+                mTextLength = mFormatter.format(mValueToDraw);
+                mTextBuffer = mFormatter.getBuffer();
+                mTextStart = 0;
+                mTextWidth = -1;
+            }
+            updateTextVersion();
+        }
+        return mTextLength;
+    }
+
+    /**
+     * Create formatter and text table if they were discarded
+     */
+    private void prepareTextTable() {
+        if (mFormatter == null) {
+            mFormatter = new ValueFormatter(getDecimalFormat(), getSuffix());
+            invalidateText();
+        }
+        if (!mIsTextTableValid) {
+            mTextTable = ValueTextTable.create(mFormatter, mRangeMin, mRangeMax, mTextTableSize);
+            if (mTextTable != null) mTextTable.measure(getTextMetrics());
+            mIsTextTableValid = true;
+        }
+    }
+
+    /**
+     * Get width of the widest text of values within the range.
+     * Exact if the range fits into the text table, otherwise an upper bound, since texts of
+     * values between range bounds may have more fraction digits and wider digits than bounds.
+     */
+    int getMaxTextWidth() {
+        if (mMaxTextWidth < 0) {
+            prepareTextTable();
+            if (mTextTable != null) {
+                mMaxTextWidth = mTextTable.getMaxWidth();
+            } else {
+                char widestDigit = findWidestDigit();
+                mMaxTextWidth = Math.max(getMaxTextWidth(mRangeMin, widestDigit),
+                        getMaxTextWidth(mRangeMax, widestDigit));
+                // Buffer of formatter might have held the prepared text
+                mTextLength = -1;
+            }
+        }
+        return mMaxTextWidth;
+    }
+
+    /**
+     * Get upper bound of width of texts of values between zero and the range bound.
+     * Such values have at most as many integer digits as the bound, hence their texts are
+     * at most as wide as the text of all nines with max fraction digits, with sign,
+     * separators, prefix and suffix of the bound, and every digit drawn as the widest one.
+     *
+     * @param bound       the range bound
+     * @param widestDigit the widest digit in the font of value
+     */
+    private int getMaxTextWidth(double bound, char widestDigit) {
+        int fractionDigits = mFormatter.getDecimalFormat().getMaximumFractionDigits();
+        // Bound rounded up to the next power of ten has one more integer digit
+        double magnitude = Math.abs(bound) + 0.5 * Math.pow(10, -fractionDigits);
+        int integerDigits = Math.max(1, (int) Math.floor(Math.log10(magnitude)) + 1);
+        fractionDigits = Math.max(0, Math.min(fractionDigits, MAX_EXACT_DIGITS - integerDigits));
+        double nines = Math.pow(10, integerDigits) - Math.pow(10, -fractionDigits);
+
+        int length = mFormatter.format(Math.copySign(nines, bound));
+        char[] text = mFormatter.getBuffer();
+        for (int i = 0; i < length; i++) {
+            if (text[i] >= '0' && text[i] <= '9') {
+                text[i] = widestDigit;
+            }
+        }
+        return getTextMetrics().getTextWidth(text, 0, length);
+    }
+
+    private char findWidestDigit() {
+        char widestDigit = '0';
+        int maxWidth = -1;
+        for (int i = 0; i < DIGITS.length; i++) {
+            int width = getTextMetrics().getTextWidth(DIGITS, i, 1);
+            if (width > maxWidth) {
+                maxWidth = width;
+                widestDigit = DIGITS[i];
+            }
+        }
+        return widestDigit;
+    }
+
+    /**
+     * Increment text version if the prepared text differs from the previous one
+     */
+    private void updateTextVersion() {
+        boolean isChanged = mTextLength != mLastTextLength;
+        for (int i = 0; !isChanged && i < mTextLength; i++) {
+            isChanged = mTextBuffer[mTextStart + i] != mLastText[i];
+        }
+        if (isChanged) {
+            if (mLastText.length < mTextLength) {
+                mLastText = new char[mTextLength * 2];
+            }
+            System.arraycopy(mTextBuffer, mTextStart, mLastText, 0, mTextLength);
+            mLastTextLength = mTextLength;
+            mTextVersion++;
+        }
+    }
+
+    /**
+     * Get version of the text prepared by {@link #formatTextToDraw()}, which changes only when
+     * the text itself changes
+     */
+    int getTextVersion() {
+        return mTextVersion;
+    }
+
+    /**
+     * Discard prepared text and text table, so that they are recreated on next draw
+     */
+    private void invalidateText() {
+        mTextLength = -1;
+        mMaxTextWidth = -1;
+        mIsTextTableValid = false;
+    }
+
+    /**
+     * Get buffer holding the text prepared by the last call of {@link #formatTextToDraw()}
+     */
+    char[] getTextBuffer() {
+        return mTextBuffer;
+    }
+
+    /**
+     * Get index of the first char of the text prepared by the last call of
+     * {@link #formatTextToDraw()}
+     */
+    int getTextStart() {
+        return mTextStart;
+    }
+
+    /**
+     * Get width of the text prepared by the last call of {@link #formatTextToDraw()}
+     */
+    int getTextWidth() {
+        if (mTextWidth < 0) {
+            mTextWidth = getTextMetrics().getTextWidth(mTextBuffer, mTextStart, mTextLength);
+        }
+        return mTextWidth;
     }
 
     @Override
     void setVisible(boolean visible) {
         super.setVisible(visible);
-        mView.requestLayout();
+        mView.requestRelayout();
     }
 
     @Override
-    void setTextColor(int textColor) {
-        int color = Util.colorSetter(mContext, textColor);
+    void setTextColor(@ColorInt int textColor) {
+        mTextColors = null;
+        applyTextColor(textColor);
+    }
+
+    void setTextColor(ColorStateList textColors) {
+        mTextColors = textColors;
+        applyTextColor(textColors.getColorForState(mView.getDrawableState(),
+                textColors.getDefaultColor()));
+    }
+
+    void setTextColorResource(@ColorRes int textColor) {
+        setTextColor(ColorCache.getColorStateList(mContext, textColor));
+    }
+
+    /**
+     * Update text color to match the drawable state of the view
+     *
+     * @param state the drawable state of the view
+     * @return true if text color changed
+     */
+    boolean updateColorState(int[] state) {
+        if (mTextColors == null || !mTextColors.isStateful()) return false;
+        int color = mTextColors.getColorForState(state, mTextColors.getDefaultColor());
+        if (color == getTextColor()) return false;
         super.setTextColor(color);
-        mPaint.setColor(color);
+        updatePaint();
+        return true;
+    }
+
+    private void applyTextColor(int color) {
+        if (color == getTextColor()) return;
+        super.setTextColor(color);
+        updatePaint();
         mView.invalidate();
     }
 
     @Override
     void setTextSize(int textSize) {
         super.setTextSize(textSize);
-        mPaint.setTextSize(textSize);
-        mView.requestLayout();
+        updatePaint();
+        invalidateText();
+        mView.requestRelayout();
     }
 
     void setTextSize(float textSize) {
@@ -192,58 +453,115 @@ class Value extends BaseValue {
     }
 
     void setValue(double value, double mMinValue, double mMaxValue) {
-        double previousValue = getValue();
+        setRange(mMinValue, mMaxValue);
         if (Util.isBetween(value, mMinValue, mMaxValue)) {
             setValue(value);
         } else {
            setValue(mMinValue);
         }
 
-        if (mAnimator != null) {
-            mAnimator.cancel();
-        }
-
         if (mIsAnimated) {
-            mAnimator = ValueAnimator.ofFloat((float) previousValue, (float) getValue());
-            //animationDuration specifies how long it should take to animate the entire graph, so the
-            //actual value to use depends on how much the value needs to change
-            double changeInValue = Math.abs(getValue() - previousValue);
-            long durationToUse = (long) (mAnimationDuration * (changeInValue
-                    / Math.max(mMinValue, mMaxValue)));
-            mAnimator.setDuration(durationToUse);
-
-            mAnimator.addUpdateListener(valueAnimator -> {
-                mValueToDraw = (float) valueAnimator.getAnimatedValue();
-                mView.invalidate();
-            });
-
-            mAnimator.start();
+            startAnimation();
         } else {
+            AnimationTicker.getInstance().remove(this);
+            mAnimation.jumpTo(getValue());
             mValueToDraw = getValue();
         }
-        mView.invalidate();
+        mView.onAnimationStateChanged();
+        mView.invalidateValue();
+    }
+
+    /**
+     * Animate displayed value to the value. Animation starts on the next frame, unless
+     * animations are paused.
+     */
+    private void startAnimation() {
+        //animationDuration specifies how long it should take to animate the entire graph, so the
+        //actual value to use depends on which fraction of the range the value needs to cross
+        double range = Math.abs(mRangeMax - mRangeMin);
+        double changeInValue = Math.abs(getValue() - mValueToDraw);
+        long durationToUse = range > 0
+                ? (long) (mAnimationDuration * NANOS_PER_MILLI * (changeInValue / range)) : 0;
+        // Continues from the displayed value and velocity, if previous animation is running
+        mAnimation.animateTo(mValueToDraw, getValue(), durationToUse);
+        if (!mIsAnimationPaused) {
+            AnimationTicker.getInstance().add(this);
+        }
+    }
+
+    /**
+     * Pause animation while the view isn't displayed. Paused animation doesn't receive frames,
+     * and continues from the displayed value once resumed.
+     *
+     * @param paused true to pause animation
+     */
+    void setAnimationPaused(boolean paused) {
+        if (mIsAnimationPaused == paused) return;
+        mIsAnimationPaused = paused;
+        if (!mAnimation.isRunning()) return;
+        if (paused) {
+            AnimationTicker.getInstance().remove(this);
+        } else {
+            startAnimation();
+        }
+        mView.onAnimationStateChanged();
+    }
+
+    /**
+     * Advance animation of value to the frame time
+     *
+     * @param frameTimeNanos the time of frame
+     * @return true until the animation ends
+     */
+    @Override
+    public boolean onFrame(long frameTimeNanos) {
+        boolean isRunning = mAnimation.update(frameTimeNanos);
+        // Retargeting with high velocity may overshoot, which is not displayed out of range
+        mValueToDraw = Math.max(Math.min(mRangeMin, mRangeMax),
+                Math.min(Math.max(mRangeMin, mRangeMax), mAnimation.getValue()));
+        mView.invalidateValue();
+        if (!isRunning) mView.onAnimationStateChanged();
+        return isRunning;
+    }
+
+    /**
+     * Determine whether animation receives frames
+     */
+    boolean isAnimationRunning() {
+        return mAnimation.isRunning() && !mIsAnimationPaused;
     }
 
     @Override
     void setSuffix(String suffix) {
         if (suffix != null) {
             super.setSuffix(suffix);
-            mView.requestLayout();
+            mFormatter = null;
+            invalidateText();
+            mView.requestRelayout();
         }
     }
 
     @Override
     void setFont(Typeface font) {
+        mPendingFont = 0;
         super.setFont(font);
-        mPaint.setTypeface(font);
-        mView.requestLayout();
+        updatePaint();
+        invalidateText();
+        mView.requestRelayout();
     }
 
+    /**
+     * Load font asynchronously. Current font is used until the new one is loaded.
+     */
     void setFont(@FontRes int font) {
-        try {
-            setFont(ResourcesCompat.getFont(mContext, font));
-        } catch (Resources.NotFoundException e) {
-            e.printStackTrace();
+        mPendingFont = font;
+        FontCache.load(mContext, font, this::onFontLoaded);
+    }
+
+    private void onFontLoaded(@FontRes int font, Typeface typeface) {
+        // Ignore fonts superseded by later calls
+        if (font == mPendingFont) {
+            setFont(typeface);
         }
     }
 
@@ -251,7 +569,35 @@ class Value extends BaseValue {
     void setDecimalFormat(DecimalFormat decimalFormat) {
         if (decimalFormat != null) {
             super.setDecimalFormat(decimalFormat);
-            mView.requestLayout();
+            mFormatter = null;
+            invalidateText();
+            mView.requestRelayout();
+        }
+    }
+
+    /**
+     * Set the range of values, which determines the entries of text table
+     *
+     * @param minValue the starting point of range
+     * @param maxValue the end point of range
+     */
+    void setRange(double minValue, double maxValue) {
+        if (Double.compare(minValue, mRangeMin) != 0 || Double.compare(maxValue, mRangeMax) != 0) {
+            mRangeMin = minValue;
+            mRangeMax = maxValue;
+            invalidateText();
+            mView.requestRelayout();
+        }
+    }
+
+    int getTextTableSize() {
+        return mTextTableSize;
+    }
+
+    void setTextTableSize(int textTableSize) {
+        if (textTableSize != mTextTableSize) {
+            mTextTableSize = textTableSize;
+            invalidateText();
         }
     }
 
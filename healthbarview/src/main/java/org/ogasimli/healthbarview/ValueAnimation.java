@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2018 Orkhan Gasimli - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * This file is proprietary and confidential.
+ * Written by Orkhan Gasimli <orkhan.gasimli@gmail.com> in 2018.
+ */
+
+package org.ogasimli.healthbarview;
+
+/**
+ * Retargetable animation of value.
+ * Value follows cubic Hermite curve from start value and velocity to the target, where it
+ * comes to rest. Changing target while running continues from the current value and velocity,
+ * so that the animated value doesn't jump. The same instance is reused for all animations.
+ *
+ * @author Orkhan Gasimli on 17.10.2026.
+ */
+final class ValueAnimation {
+
+    //----------------------------------
+    // Static fields
+
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    // endregion static fields
+    //----------------------------------
+
+    //----------------------------------
+    // Member variables of the class
+
+    private double mStartValue;
+
+    private double mStartVelocity; //in units of value per second
+
+    private double mTargetValue;
+
+    private double mDuration; //in seconds
+
+    private long mStartTime = -1; //time of the first frame, -1 until it is drawn
+
+    private double mValue;
+
+    private double mVelocity; //in units of value per second
+
+    private boolean mIsRunning;
+
+    // endregion member variables
+    //----------------------------------
+
+    //----------------------------------
+    // Helper methods
+
+    /**
+     * Start animation to the target. If animation is running, it continues from the current value
+     * and velocity, otherwise it starts at rest from the given value.
+     *
+     * @param from          the value to start from, if animation isn't running
+     * @param target        the value to animate to
+     * @param durationNanos the duration of animation in nanoseconds
+     */
+    void animateTo(double from, double target, long durationNanos) {
+        if (mIsRunning) {
+            mStartValue = mValue;
+            mStartVelocity = mVelocity;
+        } else {
+            mStartValue = from;
+            mStartVelocity = 0;
+            mValue = from;
+            mVelocity = 0;
+        }
+        mTargetValue = target;
+        mDuration = durationNanos / NANOS_PER_SECOND;
+        mStartTime = -1;
+        mIsRunning = true;
+    }
+
+    /**
+     * Stop animation at the value
+     *
+     * @param value the value to rest at
+     */
+    void jumpTo(double value) {
+        mValue = value;
+        mVelocity = 0;
+        mIsRunning = false;
+    }
+
+    /**
+     * Advance animation to the frame time
+     *
+     * @param frameTimeNanos the time of frame
+     * @return true if animation hasn't reached the target yet
+     */
+    boolean update(long frameTimeNanos) {
+        if (!mIsRunning) return false;
+        if (mStartTime < 0) {
+            mStartTime = frameTimeNanos;
+        }
+        double time = (frameTimeNanos - mStartTime) / NANOS_PER_SECOND;
+        if (time >= mDuration) {
+            jumpTo(mTargetValue);
+            return false;
+        }
+
+        // Cubic Hermite basis functions of the elapsed fraction s
+        double s = time / mDuration;
+        double s2 = s * s;
+        double s3 = s2 * s;
+        double startWeight = 2 * s3 - 3 * s2 + 1;
+        double velocityWeight = s3 - 2 * s2 + s;
+        double targetWeight = 3 * s2 - 2 * s3;
+        mValue = startWeight * mStartValue + velocityWeight * mDuration * mStartVelocity
+                + targetWeight * mTargetValue;
+
+        // Derivatives of basis functions with respect to time
+        double startRate = (6 * s2 - 6 * s) / mDuration;
+        double velocityRate = 3 * s2 - 4 * s + 1;
+        mVelocity = startRate * (mStartValue - mTargetValue) + velocityRate * mStartVelocity;
+        return true;
+    }
+
+    // endregion helper methods
+    //----------------------------------
+
+    //----------------------------------
+    // Setter & getters
+
+    double getValue() {
+        return mValue;
+    }
+
+    double getVelocity() {
+        return mVelocity;
+    }
+
+    double getTargetValue() {
+        return mTargetValue;
+    }
+
+    boolean isRunning() {
+        return mIsRunning;
+    }
+
+    // endregion setter & getters
+    //----------------------------------
+}
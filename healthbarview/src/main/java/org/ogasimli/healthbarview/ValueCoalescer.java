@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2018 Orkhan Gasimli - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * This file is proprietary and confidential.
+ * Written by Orkhan Gasimli <orkhan.gasimli@gmail.com> in 2018.
+ */
+
+package org.ogasimli.healthbarview;
+
+/**
+ * Collector of values set within a frame, which applies a single aggregated value to the view
+ * on the next frame. Cost of frequent updates is then proportional to the frame rate
+ * rather than to the rate of updates.
+ *
+ * @author Orkhan Gasimli on 17.10.2026.
+ */
+final class ValueCoalescer implements AnimationTicker.Client {
+
+    //----------------------------------
+    // Member variables of the class
+
+    private final HealthBarView mView;
+
+    @HealthBarView.ValueAggregation
+    private int mAggregation = HealthBarView.AGGREGATION_LAST;
+
+    // Aggregates of values collected since the last frame
+    private int mCount;
+
+    private double mLast;
+
+    private double mMin;
+
+    private double mMax;
+
+    private double mSum;
+
+    private boolean mIsPaused; //values are collected, but not applied while paused
+
+    // endregion member variables
+    //----------------------------------
+
+    //----------------------------------
+    // Constructors
+
+    ValueCoalescer(HealthBarView view) {
+        mView = view;
+    }
+
+    // endregion constructors
+    //----------------------------------
+
+    //----------------------------------
+    // Helper methods
+
+    /**
+     * Collect value to be applied on the next frame
+     *
+     * @param value the value
+     */
+    void add(double value) {
+        if (mCount == 0) {
+            mMin = value;
+            mMax = value;
+            mSum = 0;
+            if (!mIsPaused) AnimationTicker.getInstance().add(this);
+        }
+        mCount++;
+        mLast = value;
+        mMin = Math.min(mMin, value);
+        mMax = Math.max(mMax, value);
+        mSum += value;
+    }
+
+    /**
+     * Apply the aggregate of collected values to the view immediately
+     */
+    void flush() {
+        if (mCount == 0) return;
+        double value = aggregate();
+        mCount = 0;
+        AnimationTicker.getInstance().remove(this);
+        mView.applyValue(value);
+    }
+
+    /**
+     * Stop applying collected values on frames while the view isn't displayed.
+     * Values collected while paused are applied on the first frame after resuming.
+     *
+     * @param paused true to pause
+     */
+    void setPaused(boolean paused) {
+        mIsPaused = paused;
+        if (paused) {
+            AnimationTicker.getInstance().remove(this);
+        } else if (mCount > 0) {
+            AnimationTicker.getInstance().add(this);
+        }
+    }
+
+    boolean hasPendingValue() {
+        return mCount > 0;
+    }
+
+    @Override
+    public boolean onFrame(long frameTimeNanos) {
+        flush();
+        // Ticker is rejoined by the next value
+        return false;
+    }
+
+    private double aggregate() {
+        switch (mAggregation) {
+            case HealthBarView.AGGREGATION_MIN:
+                return mMin;
+            case HealthBarView.AGGREGATION_MAX:
+                return mMax;
+            case HealthBarView.AGGREGATION_MEAN:
+                return mSum / mCount;
+            default:
+                return mLast;
+        }
+    }
+
+    // endregion helper methods
+    //----------------------------------
+
+    //----------------------------------
+    // Setter & getters
+
+    @HealthBarView.ValueAggregation
+    int getAggregation() {
+        return mAggregation;
+    }
+
+    void setAggregation(@HealthBarView.ValueAggregation int aggregation) {
+        mAggregation = aggregation;
+    }
+
+    // endregion setter & getters
+    //----------------------------------
+}
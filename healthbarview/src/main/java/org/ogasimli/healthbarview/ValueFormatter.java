@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) 2018 Orkhan Gasimli - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * This file is proprietary and confidential.
+ * Written by Orkhan Gasimli <orkhan.gasimli@gmail.com> in 2018.
+ */
+
+package org.ogasimli.healthbarview;
+
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+
+/**
+ * Formatter writing values into reusable char buffer without allocations.
+ * Supports the subset of DecimalFormat patterns used for values (e.g. "0", "0.0", "#,##0.00"
+ * with prefix and suffix) and falls back to DecimalFormat for any other pattern and for the
+ * values which can't be rounded unambiguously with double arithmetic.
+ *
+ * @author Orkhan Gasimli on 17.10.2026.
+ */
+final class ValueFormatter {
+
+    //----------------------------------
+    // Static fields
+
+    // Max number of fraction digits which can be handled with double arithmetic
+    private static final int MAX_FRACTION_DIGITS = 9;
+
+    // Max absolute scaled value which is represented exactly in double
+    private static final double MAX_SCALED_VALUE = 1e15;
+
+    // Enough to hold 16 digits with grouping separators, decimal separator and fraction digits
+    private static final int MAX_NUMBER_LENGTH = 48;
+
+    private static final long[] POWERS_OF_TEN = {1L, 10L, 100L, 1000L, 10000L, 100000L,
+            1000000L, 10000000L, 100000000L, 1000000000L};
+
+    // endregion static fields
+    //----------------------------------
+
+    //----------------------------------
+    // Member variables of the class
+
+    private final DecimalFormat mDecimalFormat;
+
+    private final String mSuffix;
+
+    private final boolean mIsSupported;
+
+    private final int mMinIntegerDigits;
+
+    private final int mMinFractionDigits;
+
+    private final int mMaxFractionDigits;
+
+    private final int mGroupingSize;
+
+    private final boolean mIsDecimalSeparatorAlwaysShown;
+
+    private final char mZeroDigit;
+
+    private final char mDecimalSeparator;
+
+    private final char mGroupingSeparator;
+
+    private final String mPositivePrefix;
+
+    private final String mPositiveSuffix;
+
+    private final String mNegativePrefix;
+
+    private final String mNegativeSuffix;
+
+    private char[] mBuffer;
+
+    // Digits of the number in reverse order
+    private final char[] mDigits = new char[MAX_NUMBER_LENGTH];
+
+    // endregion member variables
+    //----------------------------------
+
+    //----------------------------------
+    // Constructors
+
+    /**
+     * Create formatter which mirrors the current configuration of decimal format.
+     * Later changes to the decimal format object are not picked up.
+     *
+     * @param decimalFormat the decimal format
+     * @param suffix        the suffix to be append to the end of the value
+     */
+    ValueFormatter(DecimalFormat decimalFormat, String suffix) {
+        mDecimalFormat = decimalFormat;
+        mSuffix = suffix != null ? suffix : "";
+
+        DecimalFormatSymbols symbols = decimalFormat.getDecimalFormatSymbols();
+        mMinIntegerDigits = decimalFormat.getMinimumIntegerDigits();
+        mMinFractionDigits = decimalFormat.getMinimumFractionDigits();
+        mMaxFractionDigits = decimalFormat.getMaximumFractionDigits();
+        mGroupingSize = decimalFormat.isGroupingUsed() ? decimalFormat.getGroupingSize() : 0;
+        mIsDecimalSeparatorAlwaysShown = decimalFormat.isDecimalSeparatorAlwaysShown();
+        mZeroDigit = symbols.getZeroDigit();
+        mDecimalSeparator = symbols.getDecimalSeparator();
+        mGroupingSeparator = symbols.getGroupingSeparator();
+        mPositivePrefix = decimalFormat.getPositivePrefix();
+        mPositiveSuffix = decimalFormat.getPositiveSuffix();
+        mNegativePrefix = decimalFormat.getNegativePrefix();
+        mNegativeSuffix = decimalFormat.getNegativeSuffix();
+        mIsSupported = isSupported(decimalFormat);
+
+        mBuffer = new char[MAX_NUMBER_LENGTH + mSuffix.length()
+                + Math.max(mPositivePrefix.length() + mPositiveSuffix.length(),
+                mNegativePrefix.length() + mNegativeSuffix.length())];
+    }
+
+    // endregion constructors
+    //----------------------------------
+
+    //----------------------------------
+    // Helper methods
+
+    /**
+     * Determine if the pattern of decimal format is within the supported subset
+     *
+     * @param decimalFormat the decimal format
+     */
+    private static boolean isSupported(DecimalFormat decimalFormat) {
+        RoundingMode roundingMode = decimalFormat.getRoundingMode();
+        return decimalFormat.getMultiplier() == 1
+                && decimalFormat.toPattern().indexOf('E') < 0
+                && decimalFormat.getMinimumIntegerDigits() >= 1
+                && decimalFormat.getMaximumIntegerDigits() >= 16
+                && decimalFormat.getMaximumFractionDigits() <= MAX_FRACTION_DIGITS
+                && (roundingMode == RoundingMode.HALF_EVEN || roundingMode == RoundingMode.HALF_UP
+                || roundingMode == RoundingMode.HALF_DOWN);
+    }
+
+    /**
+     * Format value into the buffer returned by {@link #getBuffer()}
+     *
+     * @param value the value to be formatted
+     * @return the number of chars written to the buffer
+     */
+    int format(double value) {
+        if (!mIsSupported || Double.isNaN(value) || Double.isInfinite(value)) {
+            return formatWithFallback(value);
+        }
+
+        double scaled = Math.abs(value) * POWERS_OF_TEN[mMaxFractionDigits];
+        if (scaled >= MAX_SCALED_VALUE) {
+            return formatWithFallback(value);
+        }
+
+        // Rounding modes differ only for ties. Double product can't tell whether the exact
+        // value is a tie, therefore such values are left to DecimalFormat.
+        double floor = Math.floor(scaled);
+        if (Math.abs(scaled - floor - 0.5) <= 4 * Math.ulp(scaled)) {
+            return formatWithFallback(value);
+        }
+        long rounded = (long) (scaled - floor < 0.5 ? floor : floor + 1);
+
+        boolean isNegative = value < 0 || (value == 0 && 1 / value < 0);
+        if (isNegative && rounded == 0) {
+            // DecimalFormat keeps the sign of negative zero
+            return formatWithFallback(value);
+        }
+
+        int digitCount = writeDigits(rounded);
+
+        int length = 0;
+        length = append(isNegative ? mNegativePrefix : mPositivePrefix, length);
+        for (int i = digitCount - 1; i >= 0; i--) {
+            mBuffer[length++] = mDigits[i];
+        }
+        length = append(isNegative ? mNegativeSuffix : mPositiveSuffix, length);
+        length = append(mSuffix, length);
+        return length;
+    }
+
+    /**
+     * Write digits and separators of rounded value into digits array in reverse order
+     *
+     * @param rounded the absolute value multiplied by 10 to the power of max fraction digits
+     * @return the number of chars written
+     */
+    private int writeDigits(long rounded) {
+        int count = 0;
+
+        // Fraction digits, omitting trailing zeros beyond the minimum
+        long fraction = rounded % POWERS_OF_TEN[mMaxFractionDigits];
+        int fractionDigits = mMaxFractionDigits;
+        while (fractionDigits > mMinFractionDigits && fraction % 10 == 0) {
+            fraction /= 10;
+            fractionDigits--;
+        }
+        for (int i = 0; i < fractionDigits; i++) {
+            mDigits[count++] = (char) (mZeroDigit + fraction % 10);
+            fraction /= 10;
+        }
+        if (fractionDigits > 0 || mIsDecimalSeparatorAlwaysShown) {
+            mDigits[count++] = mDecimalSeparator;
+        }
+
+        // Integer digits with grouping separators
+        long integer = rounded / POWERS_OF_TEN[mMaxFractionDigits];
+        int integerDigits = 0;
+        while (integer > 0 || integerDigits < mMinIntegerDigits) {
+            if (mGroupingSize > 0 && integerDigits > 0 && integerDigits % mGroupingSize == 0) {
+                mDigits[count++] = mGroupingSeparator;
+            }
+            mDigits[count++] = (char) (mZeroDigit + integer % 10);
+            integer /= 10;
+            integerDigits++;
+        }
+        return count;
+    }
+
+    /**
+     * Append string to the buffer
+     *
+     * @param text   the string to append
+     * @param length the current length of the text in buffer
+     * @return the new length of the text in buffer
+     */
+    private int append(String text, int length) {
+        text.getChars(0, text.length(), mBuffer, length);
+        return length + text.length();
+    }
+
+    /**
+     * Format value with decimal format and copy result into the buffer
+     *
+     * @param value the value to be formatted
+     * @return the number of chars written to the buffer
+     */
+    private int formatWithFallback(double value) {
+        String text = mDecimalFormat.format(value) + mSuffix;
+        if (text.length() > mBuffer.length) {
+            mBuffer = new char[text.length()];
+        }
+        return append(text, 0);
+    }
+
+    /**
+     * Format value into a new string.
+     * Allocates, hence should be used outside of the draw path.
+     *
+     * @param value the value to be formatted
+     */
+    String formatToString(double value) {
+        return new String(mBuffer, 0, format(value));
+    }
+
+    // endregion helper methods
+    //----------------------------------
+
+    //----------------------------------
+    // Setter & getters
+
+    char[] getBuffer() {
+        return mBuffer;
+    }
+
+    boolean isSupported() {
+        return mIsSupported;
+    }
+
+    int getMaxFractionDigits() {
+        return mMaxFractionDigits;
+    }
+
+    DecimalFormat getDecimalFormat() {
+        return mDecimalFormat;
+    }
+
+    String getSuffix() {
+        return mSuffix;
+    }
+}
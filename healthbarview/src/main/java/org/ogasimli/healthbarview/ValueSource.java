@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2018 Orkhan Gasimli - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * This file is proprietary and confidential.
+ * Written by Orkhan Gasimli <orkhan.gasimli@gmail.com> in 2018.
+ */
+
+package org.ogasimli.healthbarview;
+
+import android.support.annotation.AnyThread;
+
+/**
+ * Stream of values, which HealthBarView can be bound to with
+ * {@link HealthBarView#bind(ValueSource)}. The view listens to the source only while it is
+ * attached to window, and displays the latest value of each frame.
+ *
+ * @author Orkhan Gasimli on 17.10.2026.
+ */
+public interface ValueSource {
+
+    /**
+     * Start delivering values to the listener
+     *
+     * @param listener the listener
+     */
+    void addListener(Listener listener);
+
+    /**
+     * Stop delivering values to the listener
+     *
+     * @param listener the listener added before
+     */
+    void removeListener(Listener listener);
+
+    /**
+     * Listener receiving values of the source
+     */
+    interface Listener {
+
+        /**
+         * Called for each new value. May be called from any thread.
+         *
+         * @param value the value
+         */
+        @AnyThread
+        void onValue(double value);
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2018 Orkhan Gasimli - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * This file is proprietary and confidential.
+ * Written by Orkhan Gasimli <orkhan.gasimli@gmail.com> in 2018.
+ */
+
+package org.ogasimli.healthbarview;
+
+/**
+ * Table of preformatted texts and their widths for all values displayable within the range.
+ * Built only if the precision of decimal format gives a bounded number of distinct texts.
+ *
+ * @author Orkhan Gasimli on 17.10.2026.
+ */
+final class ValueTextTable {
+
+    //----------------------------------
+    // Member variables of the class
+
+    private final double mScale;
+
+    // Scaled and rounded value of the first entry
+    private final long mBase;
+
+    private final int mSize;
+
+    // Texts of all entries one after another
+    private final char[] mChars;
+
+    // Start of each entry in chars array, with extra element marking the end of the last entry
+    private final int[] mStarts;
+
+    private final int[] mWidths;
+
+    private int mMaxWidth;
+
+    // endregion member variables
+    //----------------------------------
+
+    //----------------------------------
+    // Constructors
+
+    private ValueTextTable(double scale, long base, int size, char[] chars, int[] starts) {
+        mScale = scale;
+        mBase = base;
+        mSize = size;
+        mChars = chars;
+        mStarts = starts;
+        mWidths = new int[size];
+    }
+
+    // endregion constructors
+    //----------------------------------
+
+    //----------------------------------
+    // Helper methods
+
+    /**
+     * Build table of texts of all values displayable within the range
+     *
+     * @param formatter  the formatter of values
+     * @param minValue   the starting point of range
+     * @param maxValue   the end point of range
+     * @param maxEntries the max number of entries table can hold
+     * @return the table or null if the range has more displayable values than max entries,
+     * or if values can't be formatted by the formatter itself
+     */
+    static ValueTextTable create(ValueFormatter formatter, double minValue, double maxValue,
+                                 int maxEntries) {
+        if (!formatter.isSupported() || maxEntries <= 0 || Double.isNaN(minValue)
+                || Double.isNaN(maxValue)) {
+            return null;
+        }
+        double scale = Math.pow(10, formatter.getMaxFractionDigits());
+        double first = Math.rint(Math.min(minValue, maxValue) * scale);
+        double last = Math.rint(Math.max(minValue, maxValue) * scale);
+        if (last - first + 1 > maxEntries) {
+            return null;
+        }
+
+        long base = (long) first;
+        int size = (int) (last - first) + 1;
+        int[] starts = new int[size + 1];
+        char[] chars = new char[size * 8];
+        int length = 0;
+        for (int i = 0; i < size; i++) {
+            int textLength = formatter.format((base + i) / scale);
+            if (length + textLength > chars.length) {
+                char[] grown = new char[Math.max(chars.length * 2, length + textLength)];
+                System.arraycopy(chars, 0, grown, 0, length);
+                chars = grown;
+            }
+            System.arraycopy(formatter.getBuffer(), 0, chars, length, textLength);
+            starts[i] = length;
+            length += textLength;
+        }
+        starts[size] = length;
+        return new ValueTextTable(scale, base, size, chars, starts);
+    }
+
+    /**
+     * Measure width of all entries
+     *
+     * @param textMetrics the metrics of the paint that will draw the text
+     */
+    void measure(TextMetrics textMetrics) {
+        mMaxWidth = 0;
+        for (int i = 0; i < mSize; i++) {
+            mWidths[i] = textMetrics.getTextWidth(mChars, getStart(i), getLength(i));
+            mMaxWidth = Math.max(mMaxWidth, mWidths[i]);
+        }
+    }
+
+    /**
+     * Find entry holding the text of value
+     *
+     * @param value the value to be drawn
+     * @return the index of entry or -1 if value should be formatted live
+     */
+    int indexOf(double value) {
+        double scaled = value * mScale;
+        double floor = Math.floor(scaled);
+        // Values which are (nearly) rounding ties or round to negative zero are formatted live
+        if (Double.isNaN(scaled) || Math.abs(scaled - floor - 0.5) <= 4 * Math.ulp(scaled)) {
+            return -1;
+        }
+        double rounded = scaled - floor < 0.5 ? floor : floor + 1;
+        if (rounded == 0 && value < 0) {
+            return -1;
+        }
+        double index = rounded - mBase;
+        return index >= 0 && index < mSize ? (int) index : -1;
+    }
+
+    // endregion helper methods
+    //----------------------------------
+
+    //----------------------------------
+    // Setter & getters
+
+    int getSize() {
+        return mSize;
+    }
+
+    char[] getChars() {
+        return mChars;
+    }
+
+    int getStart(int index) {
+        return mStarts[index];
+    }
+
+    int getLength(int index) {
+        return mStarts[index + 1] - mStarts[index];
+    }
+
+    int getWidth(int index) {
+        return mWidths[index];
+    }
+
+    int getMaxWidth() {
+        return mMaxWidth;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2018 Orkhan Gasimli - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * This file is proprietary and confidential.
+ * Written by Orkhan Gasimli <orkhan.gasimli@gmail.com> in 2018.
+ */
+
+package org.ogasimli.healthbarview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Local unit test of the lookup table of labels.
+ *
+ * @see <a href="http://d.android.com/tools/testing">Testing documentation</a>
+ */
+public class LabelTableTest {
+
+    private static final String[] LABELS = {"E", "D", "C", "B", "A"};
+
+    @Test
+    public void find_dividesRangeEvenly() throws Exception {
+        LabelTable table = LabelTable.create(LABELS, null, 0, 100);
+
+        assertEquals("E", table.find(0));
+        assertEquals("E", table.find(19.9));
+        assertEquals("D", table.find(20));
+        assertEquals("A", table.find(99));
+        assertEquals("A", table.find(100));
+    }
+
+    @Test
+    public void find_reversesLabelsOfDescendingRangeWithoutModifyingThem() throws Exception {
+        String[] labels = LABELS.clone();
+        LabelTable table = LabelTable.create(labels, null, 100, 0);
+
+        assertEquals("A", table.find(100));
+        assertEquals("A", table.find(95));
+        assertEquals("E", table.find(0));
+        // Lookups are stable, no matter how often repeated
+        assertEquals("A", table.find(100));
+        assertArrayEquals(LABELS, labels);
+    }
+
+    @Test
+    public void find_usesFirstLabelWhoseBoundIsNotLessThanValue() throws Exception {
+        LabelTable table = LabelTable.create(LABELS, new double[]{20, 40, 60, 80, 100}, 0, 100);
+
+        assertEquals("E", table.find(0));
+        assertEquals("E", table.find(20));
+        assertEquals("D", table.find(20.5));
+        assertEquals("B", table.find(80));
+        assertEquals("A", table.find(81));
+    }
+
+    @Test
+    public void find_skipsLabelsShadowedByPreviousBounds() throws Exception {
+        LabelTable table = LabelTable.create(LABELS, new double[]{50, 30, 70, 70, 100}, 0, 100);
+
+        assertEquals("E", table.find(40));
+        assertEquals("C", table.find(70));
+        assertEquals("A", table.find(71));
+    }
+
+    @Test
+    public void find_resolvesLargeLabelSets() throws Exception {
+        int count = 500;
+        String[] labels = new String[count];
+        double[] bounds = new double[count];
+        for (int i = 0; i < count; i++) {
+            labels[i] = String.valueOf(i);
+            bounds[i] = (i + 1) * 0.2;
+        }
+        LabelTable table = LabelTable.create(labels, bounds, 0, 100);
+
+        for (int i = 0; i < count; i++) {
+            assertEquals(labels[i], table.find(i * 0.2 + 0.1));
+        }
+    }
+
+    @Test
+    public void find_usesEvenDivisionIfRangesDoNotMatchLabels() throws Exception {
+        LabelTable table = LabelTable.create(LABELS, new double[]{50, 100}, 0, 100);
+
+        assertEquals("D", table.find(30));
+    }
+
+    @Test
+    public void isBuiltFor_comparesRange() throws Exception {
+        LabelTable table = LabelTable.create(LABELS, null, 0, 100);
+
+        assertTrue(table.isBuiltFor(0, 100));
+        assertFalse(table.isBuiltFor(0, 50));
+        assertFalse(table.isBuiltFor(100, 0));
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2018 Orkhan Gasimli - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * This file is proprietary and confidential.
+ * Written by Orkhan Gasimli <orkhan.gasimli@gmail.com> in 2018.
+ */
+
+package org.ogasimli.healthbarview;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Local unit test of the retargetable value animation.
+ *
+ * @see <a href="http://d.android.com/tools/testing">Testing documentation</a>
+ */
+public class ValueAnimationTest {
+
+    private static final long MILLI = 1000000L;
+
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void update_reachesTargetAtRestAfterDuration() throws Exception {
+        ValueAnimation animation = new ValueAnimation();
+        animation.animateTo(0, 100, 1000 * MILLI);
+
+        assertTrue(animation.update(0));
+        assertTrue(animation.update(500 * MILLI));
+        assertEquals(50, animation.getValue(), DELTA);
+        assertFalse(animation.update(1000 * MILLI));
+        assertEquals(100, animation.getValue(), DELTA);
+        assertEquals(0, animation.getVelocity(), DELTA);
+        assertFalse(animation.isRunning());
+    }
+
+    @Test
+    public void animateTo_continuesFromCurrentValueAndVelocityWhenRetargeted() throws Exception {
+        ValueAnimation animation = new ValueAnimation();
+        animation.animateTo(0, 100, 1000 * MILLI);
+        animation.update(0);
+        animation.update(250 * MILLI);
+        double value = animation.getValue();
+        double velocity = animation.getVelocity();
+        assertTrue(velocity > 0);
+
+        // Start value passed is ignored, since animation is running
+        animation.animateTo(80, 20, 1000 * MILLI);
+        animation.update(250 * MILLI);
+
+        assertEquals(value, animation.getValue(), DELTA);
+        assertEquals(velocity, animation.getVelocity(), DELTA);
+        // Velocity stays continuous over the next frame
+        animation.update(266 * MILLI);
+        assertTrue(animation.getValue() > value);
+    }
+
+    @Test
+    public void animateTo_withZeroDurationJumpsToTarget() throws Exception {
+        ValueAnimation animation = new ValueAnimation();
+        animation.animateTo(0, 100, 0);
+
+        assertFalse(animation.update(0));
+        assertEquals(100, animation.getValue(), DELTA);
+    }
+
+    @Test
+    public void jumpTo_stopsAnimation() throws Exception {
+        ValueAnimation animation = new ValueAnimation();
+        animation.animateTo(0, 100, 1000 * MILLI);
+        animation.update(0);
+        animation.jumpTo(-20);
+
+        assertFalse(animation.update(500 * MILLI));
+        assertEquals(-20, animation.getValue(), DELTA);
+    }
+
+    @Test
+    public void framesAndRetargeting_doNotAllocate() throws Exception {
+        ValueAnimation animation = new ValueAnimation();
+        com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        // Warm up
+        animateFrames(animation, 100000);
+
+        long overhead = -threadMXBean.getThreadAllocatedBytes(threadId)
+                + threadMXBean.getThreadAllocatedBytes(threadId);
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        animateFrames(animation, 10000);
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+
+        assertEquals(overhead, allocated);
+    }
+
+    private static void animateFrames(ValueAnimation animation, int count) {
+        long frameTime = 0;
+        for (int i = 0; i < count; i++) {
+            // Retarget every few frames, as streamed values do
+            if (i % 5 == 0) {
+                animation.animateTo(0, i % 2 == 0 ? 100 : 0, 1000 * MILLI);
+            }
+            frameTime += 16 * MILLI;
+            animation.update(frameTime);
+        }
+    }
+}
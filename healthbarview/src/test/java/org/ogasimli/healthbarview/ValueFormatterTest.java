@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2018 Orkhan Gasimli - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * This file is proprietary and confidential.
+ * Written by Orkhan Gasimli <orkhan.gasimli@gmail.com> in 2018.
+ */
+
+package org.ogasimli.healthbarview;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.text.DecimalFormat;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Local unit test checking that ValueFormatter produces the same output as DecimalFormat.
+ *
+ * @see <a href="http://d.android.com/tools/testing">Testing documentation</a>
+ */
+public class ValueFormatterTest {
+
+    private static final String SUFFIX = " pts";
+
+    private static final String[] SUPPORTED_PATTERNS = {"0", "0.0", "0.00", "#,##0", "#,##0.00",
+            "00.0#", "0.###", "'$'#,##0.0", "0.0' pts'", "0.0;(0.0)"};
+
+    private static final String[] UNSUPPORTED_PATTERNS = {"0.###E0", "0%", "0.0000000000"};
+
+    private static final double[] EDGE_VALUES = {0, -0.0, 0.05, 0.15, -0.04, 0.5, 1.5, 2.5, -2.5,
+            999.95, 1234567.891, -1e15, 1e20, Double.NaN, Double.POSITIVE_INFINITY,
+            Double.NEGATIVE_INFINITY};
+
+    @Test
+    public void supportedPatterns_matchDecimalFormat() throws Exception {
+        for (String pattern : SUPPORTED_PATTERNS) {
+            ValueFormatter formatter = new ValueFormatter(new DecimalFormat(pattern), SUFFIX);
+            assertTrue(pattern, formatter.isSupported());
+            assertMatchesDecimalFormat(pattern, formatter);
+        }
+    }
+
+    @Test
+    public void unsupportedPatterns_fallBackToDecimalFormat() throws Exception {
+        for (String pattern : UNSUPPORTED_PATTERNS) {
+            ValueFormatter formatter = new ValueFormatter(new DecimalFormat(pattern), SUFFIX);
+            assertFalse(pattern, formatter.isSupported());
+            assertMatchesDecimalFormat(pattern, formatter);
+        }
+    }
+
+    @Test
+    public void format_doesNotAllocate() throws Exception {
+        ValueFormatter formatter = new ValueFormatter(new DecimalFormat("#,##0.0"), SUFFIX);
+        com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        // Warm up
+        formatValues(formatter, 100000);
+
+        long overhead = -threadMXBean.getThreadAllocatedBytes(threadId)
+                + threadMXBean.getThreadAllocatedBytes(threadId);
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        formatValues(formatter, 10000);
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+
+        assertEquals(overhead, allocated);
+    }
+
+    private static void formatValues(ValueFormatter formatter, int count) {
+        for (int i = 0; i < count; i++) {
+            // Values away from rounding ties, which are left to DecimalFormat
+            formatter.format(i + 0.123);
+        }
+    }
+
+    private static void assertMatchesDecimalFormat(String pattern, ValueFormatter formatter) {
+        DecimalFormat decimalFormat = new DecimalFormat(pattern);
+        Random random = new Random(pattern.hashCode());
+        for (int i = 0; i < 20000; i++) {
+            double value;
+            switch (i % 4) {
+                case 0:
+                    value = (random.nextDouble() - 0.5) * 2e6;
+                    break;
+                case 1:
+                    value = (random.nextDouble() - 0.5) * 200;
+                    break;
+                case 2:
+                    // Values with few decimals, including rounding ties
+                    value = Math.round((random.nextDouble() - 0.5) * 20000) / 1000.0;
+                    break;
+                default:
+                    value = (random.nextInt(2001) - 1000) / 20.0;
+            }
+            assertEquals(pattern + " " + value, decimalFormat.format(value) + SUFFIX,
+                    formatter.formatToString(value));
+        }
+        for (double value : EDGE_VALUES) {
+            assertEquals(pattern + " " + value, decimalFormat.format(value) + SUFFIX,
+                    formatter.formatToString(value));
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2018 Orkhan Gasimli - All Rights Reserved
+ * Unauthorized copying of this file, via any medium is strictly prohibited.
+ * This file is proprietary and confidential.
+ * Written by Orkhan Gasimli <orkhan.gasimli@gmail.com> in 2018.
+ */
+
+package org.ogasimli.healthbarview;
+
+import org.junit.Test;
+
+import java.text.DecimalFormat;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Local unit test of the table of preformatted value texts.
+ *
+ * @see <a href="http://d.android.com/tools/testing">Testing documentation</a>
+ */
+public class ValueTextTableTest {
+
+    private static final String SUFFIX = " pts";
+
+    private static final int MAX_ENTRIES = 1024;
+
+    @Test
+    public void create_holdsAllDisplayableValues() throws Exception {
+        ValueTextTable table = ValueTextTable.create(formatter("0.0"), -20, 34,
+                MAX_ENTRIES);
+
+        assertNotNull(table);
+        assertEquals(541, table.getSize());
+    }
+
+    @Test
+    public void create_returnsNullIfRangeExceedsMaxEntries() throws Exception {
+        assertNull(ValueTextTable.create(formatter("0.00"), -20, 34,
+                MAX_ENTRIES));
+        assertNull(ValueTextTable.create(formatter("0.0"), -20, 34, 0));
+    }
+
+    @Test
+    public void create_returnsNullForUnsupportedPattern() throws Exception {
+        assertNull(ValueTextTable.create(formatter("0%"), 0, 1, MAX_ENTRIES));
+    }
+
+    @Test
+    public void indexOf_findsTextMatchingDecimalFormat() throws Exception {
+        DecimalFormat decimalFormat = new DecimalFormat("0.0");
+        ValueTextTable table = ValueTextTable.create(formatter("0.0"), 34, -20,
+                MAX_ENTRIES);
+
+        for (double value = -20; value <= 34; value += 0.0137) {
+            int index = table.indexOf(value);
+            if (index >= 0) {
+                String text = new String(table.getChars(), table.getStart(index),
+                        table.getLength(index));
+                assertEquals(String.valueOf(value), decimalFormat.format(value) + SUFFIX, text);
+            }
+        }
+    }
+
+    @Test
+    public void indexOf_leavesTiesAndOutOfRangeValuesToFormatter() throws Exception {
+        ValueTextTable table = ValueTextTable.create(formatter("0.0"), -20, 34,
+                MAX_ENTRIES);
+
+        assertEquals(-1, table.indexOf(0.15));
+        assertEquals(-1, table.indexOf(-0.01));
+        assertEquals(-1, table.indexOf(34.1));
+        assertEquals(-1, table.indexOf(Double.NaN));
+    }
+
+    private static ValueFormatter formatter(String pattern) {
+        return new ValueFormatter(new DecimalFormat(pattern), SUFFIX);
+    }
+}